@@ -1,18 +1,77 @@
 --table for users
 
+-- Secuencia de ids de usuario (asignación en bloques de 50, igual a allocationSize en User).
+-- La tabla no tiene IDENTITY ni DEFAULT: el id siempre lo asigna Hibernate desde esta secuencia.
+CREATE SEQUENCE seq_users START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE tb_users (
-    id_user NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_user NUMBER PRIMARY KEY,
     name VARCHAR2(100),
     first_lastname VARCHAR2(100),
     second_lastname VARCHAR2(100),
-    email VARCHAR2(150) UNIQUE,
-    username VARCHAR2(50) UNIQUE,
+    email VARCHAR2(150) CONSTRAINT uk_users_email UNIQUE,
+    username VARCHAR2(50) CONSTRAINT uk_users_username UNIQUE,
     password VARCHAR2(255),
     role VARCHAR2(10) CHECK (role IN ('users', 'admin')),
     rut VARCHAR2(12) NOT NULL,
-    CONSTRAINT chk_rut_format CHECK (REGEXP_LIKE(rut, '^\d{7,8}-[0-9kK]$'))
+    rut_number NUMBER(8),
+    version NUMBER(19) DEFAULT 0 NOT NULL,
+    CONSTRAINT chk_rut_format CHECK (REGEXP_LIKE(rut, '^\d{1,8}-[0-9K]$'))
+);
+
+-- Búsqueda por RUT (GET /users/by-rut/{rut}) sobre la parte numérica normalizada.
+CREATE INDEX ix_users_rut_number ON tb_users (rut_number);
+
+-- Para bases existentes: agregar la columna, normalizar los RUT guardados y crear el índice.
+-- ALTER TABLE tb_users ADD rut_number NUMBER(8);
+-- UPDATE tb_users SET rut = UPPER(REPLACE(rut, '.', '')),
+--        rut_number = TO_NUMBER(REGEXP_SUBSTR(REPLACE(rut, '.', ''), '^\d+'));
+-- ALTER TABLE tb_users DROP CONSTRAINT chk_rut_format;
+-- ALTER TABLE tb_users ADD CONSTRAINT chk_rut_format CHECK (REGEXP_LIKE(rut, '^\d{1,8}-[0-9K]$'));
+
+-- Para bases existentes: versión de la fila (@Version en User), usada como ETag en /users/{id}.
+-- ALTER TABLE tb_users ADD version NUMBER(19) DEFAULT 0 NOT NULL;
+
+-- Para bases existentes (id_user creado como IDENTITY): quitar la identidad y crear la secuencia
+-- después del mayor id. Hibernate toma cada NEXTVAL como el límite superior de un bloque de 50
+-- (NEXTVAL - 49 .. NEXTVAL), por eso el primer valor es MAX(id_user) + 50.
+-- ALTER TABLE tb_users MODIFY id_user DROP IDENTITY;
+-- DECLARE
+--     v_start NUMBER;
+-- BEGIN
+--     SELECT NVL(MAX(id_user), 0) + 50 INTO v_start FROM tb_users;
+--     EXECUTE IMMEDIATE 'CREATE SEQUENCE seq_users START WITH ' || v_start || ' INCREMENT BY 50';
+-- END;
+-- /
+
+-- Para bases existentes: renombrar las restricciones únicas generadas por el sistema
+-- (consultar sus nombres en USER_CONSTRAINTS) para que la API traduzca los duplicados.
+-- ALTER TABLE tb_users RENAME CONSTRAINT SYS_Cxxxxx TO uk_users_email;
+-- ALTER TABLE tb_users RENAME CONSTRAINT SYS_Cyyyyy TO uk_users_username;
+
+
+-- Outbox de cambios de usuarios (auth.outbox.*): cada escritura inserta un evento en la misma transacción
+-- y cada instancia lo lee para invalidar sus cachés. La secuencia asigna de a uno (allocationSize = 1 en
+-- UserChangeEvent) para que los ids sigan el orden de inserción.
+-- ORDER: con el valor por defecto (CACHE 20 NOORDER) cada nodo de un RAC entrega ids de su propio bloque,
+-- así un cambio posterior puede recibir un id menor que otro ya leído y el cursor del outbox lo pierde.
+-- NOCACHE: los valores en caché se pierden al reiniciar la instancia y dejan huecos que el lector espera
+-- hasta auth.outbox.gap-timeout; sin caché los huecos solo provienen de transacciones revertidas.
+CREATE SEQUENCE seq_user_changes START WITH 1 INCREMENT BY 1 NOCACHE ORDER;
+
+-- Para bases existentes:
+-- ALTER SEQUENCE seq_user_changes NOCACHE ORDER;
+
+CREATE TABLE tb_user_changes (
+    id_change NUMBER PRIMARY KEY,
+    user_id NUMBER NOT NULL,
+    change_type VARCHAR2(10) NOT NULL CHECK (change_type IN ('REGISTER', 'UPDATE', 'DELETE')),
+    origin_node VARCHAR2(36) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
 );
 
+-- Purga por antigüedad (auth.outbox.retention).
+CREATE INDEX ix_user_changes_created ON tb_user_changes (created_at);
 
 --table for laboratories
 CREATE TABLE tb_laboratories (
@@ -0,0 +1,55 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.AuthServiceApiApplication;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Utilidades compartidas por los benchmarks JMH.
+ * Levanta la aplicación con el perfil "h2" y genera usuarios válidos de prueba.
+ */
+final class BenchmarkSupport {
+
+    /**
+     * Contraseña en texto plano usada por todos los usuarios generados.
+     */
+    static final String PASSWORD = "P@ssw0rd!";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Inicia el contexto de Spring en un puerto aleatorio, usando H2 en lugar de Oracle.
+     *
+     * @param args Argumentos adicionales de Spring (por ejemplo, --propiedad=valor).
+     * @return Contexto de aplicación iniciado.
+     */
+    static ConfigurableApplicationContext startApplication(String... args) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(AuthServiceApiApplication.class)
+            .profiles("h2")
+            .properties("server.port=0")
+            .run(args);
+    }
+
+    /**
+     * Crea un usuario válido cuyos campos únicos derivan del número indicado.
+     *
+     * @param n Número correlativo del usuario.
+     * @return Usuario listo para registrar.
+     */
+    static User newUser(long n) {
+        User user = new User();
+        user.setName("Nombre" + n);
+        user.setFirstLastname("Apellido" + n);
+        user.setSecondLastname("Segundo" + n);
+        user.setEmail("user" + n + "@bench.local");
+        user.setUsername("user" + n);
+        user.setPassword(PASSWORD);
+        user.setRole("users");
+        user.setRut(Rut.format(10_000_000L + n));
+        return user;
+    }
+}
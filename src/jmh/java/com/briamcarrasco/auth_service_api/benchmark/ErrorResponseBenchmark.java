@@ -0,0 +1,94 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.exception.ErrorResponses;
+import com.briamcarrasco.auth_service_api.exception.GlobalExceptionHandler;
+import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Benchmarks del costo por error de las respuestas 404 y 401.
+ * Compara la forma anterior (excepción con stack trace, mapa nuevo por respuesta y ruta obtenida
+ * con reemplazo de texto, 401 construido en cada login) con la actual.
+ * Los bytes asignados por operación aparecen en {@code gc.alloc.rate.norm} (perfilador {@code gc}):
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ErrorResponseBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    /** Profundidad de pila simulada al lanzar, similar a la de una petición dentro de Spring MVC. */
+    @Param({"100"})
+    public int stackDepth;
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private ServletWebRequest webRequest;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/users/12345");
+        webRequest = new ServletWebRequest(request);
+    }
+
+    @Benchmark
+    public Object notFoundLegacy() {
+        RuntimeException ex = throwAt(stackDepth, () -> new RuntimeException("Usuario no encontrado con id: " + ++id));
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.NOT_FOUND.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", ex.getMessage());
+        error.put("path", webRequest.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @Benchmark
+    public Object notFound() {
+        ResourceNotFoundException ex = throwAt(stackDepth, () -> new ResourceNotFoundException("Usuario no encontrado con id: " + ++id));
+        return handler.handleResourceNotFound(ex, request);
+    }
+
+    @Benchmark
+    public Object invalidCredentialsLegacy() {
+        return ResponseEntity.status(401).body("Credenciales inválidas");
+    }
+
+    @Benchmark
+    public Object invalidCredentials() {
+        return ErrorResponses.INVALID_CREDENTIALS;
+    }
+
+    /**
+     * Crea la excepción con {@code depth} marcos de pila por encima, como al lanzarla en un servicio.
+     */
+    private static <T extends RuntimeException> T throwAt(int depth, Supplier<T> exception) {
+        return depth == 0 ? exception.get() : throwAt(depth - 1, exception);
+    }
+}
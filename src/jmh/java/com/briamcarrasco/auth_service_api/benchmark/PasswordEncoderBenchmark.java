@@ -0,0 +1,68 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.security.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Benchmarks de hashing: el bean de {@link SecurityConfig} (calibrado con BCrypt o Argon2) y BCrypt
+ * con distintos factores de costo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    /**
+     * Factor de costo de BCrypt; "bean" y "bean-argon2" usan el codificador de {@link SecurityConfig}
+     * con los valores por defecto y algoritmo BCrypt o Argon2.
+     */
+    @Param({"bean", "bean-argon2", "4", "8", "10", "12"})
+    private String cost;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = switch (cost) {
+            case "bean" -> bean("bcrypt");
+            case "bean-argon2" -> bean("argon2");
+            default -> new BCryptPasswordEncoder(Integer.parseInt(cost));
+        };
+        hash = encoder.encode(BenchmarkSupport.PASSWORD);
+    }
+
+    private static PasswordEncoder bean(String algorithm) {
+        return new SecurityConfig().passwordEncoder(algorithm, Duration.ofMillis(100), 10, 19456, 2,
+            0, 64, 1, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(BenchmarkSupport.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(BenchmarkSupport.PASSWORD, hash);
+    }
+}
@@ -0,0 +1,209 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.service.UserService;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Mide el tiempo hasta el primer login exitoso de la aplicación empaquetada, desde que se lanza el proceso
+ * hasta que {@code POST /auth/login} responde 200, con H2 en archivo como reemplazo de Oracle.
+ * No usa JMH porque cada variante necesita un JVM con opciones distintas (AOT, archivo CDS) y el JAR
+ * extraído en lugar de {@code target/classes}.
+ *
+ * <p>Variantes medidas:
+ * <ul>
+ *   <li>{@code jvm}: como la imagen anterior, sin perfil "prod", sin AOT y sin CDS.</li>
+ *   <li>{@code prod}: perfil "prod" (sin springdoc).</li>
+ *   <li>{@code prod+aot}: además con {@code -Dspring.aot.enabled=true}.</li>
+ *   <li>{@code prod+aot+cds}: además con el archivo CDS generado en una ejecución de entrenamiento.</li>
+ * </ul>
+ *
+ * <p>Requiere el JAR construido con el perfil {@code fast-startup}:
+ * {@code mvn -Pfast-startup,benchmark -DskipTests clean package exec:exec@startup}.
+ * El número de arranques por variante se cambia con {@code -Dstartup.runs=5}.
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.briamcarrasco.auth_service_api.AuthServiceApiApplication";
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Path jar;
+    private final Path workDir;
+    private final Path applicationJar;
+    private final Path archive;
+    private final String classpath;
+    private final String databaseUrl;
+    private final String h2Properties;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    private StartupBenchmark(Path jar) throws URISyntaxException {
+        this.jar = jar.toAbsolutePath();
+        this.workDir = this.jar.resolveSibling("startup-benchmark");
+        this.applicationJar = workDir.resolve("app").resolve(this.jar.getFileName());
+        this.archive = workDir.resolve("app.jsa");
+        String h2Jar = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        this.classpath = applicationJar + File.pathSeparator + h2Jar;
+        this.databaseUrl = "jdbc:h2:file:" + workDir.resolve("authdb") + ";MODE=Oracle";
+        this.h2Properties = StartupBenchmark.class.getResource("/application-h2.properties").toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Uso: StartupBenchmark <ruta del JAR de la aplicación>");
+        }
+        int runs = Integer.getInteger("startup.runs", 5);
+        StartupBenchmark benchmark = new StartupBenchmark(Path.of(args[0]));
+        benchmark.prepare();
+
+        System.out.printf("%-14s %10s %10s %10s %14s%n", "variante", "min (ms)", "p50 (ms)", "max (ms)", "login p50 (ms)");
+        benchmark.report("jvm", runs, List.of(), List.of());
+        benchmark.report("prod", runs, List.of(), List.of("--spring.profiles.active=prod"));
+        benchmark.report("prod+aot", runs, List.of("-Dspring.aot.enabled=true"), List.of("--spring.profiles.active=prod"));
+        benchmark.report("prod+aot+cds", runs,
+            List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + benchmark.archive, "-Xlog:cds=off"),
+            List.of("--spring.profiles.active=prod"));
+    }
+
+    /**
+     * Extrae el JAR, crea la base H2 con un usuario y genera el archivo CDS, igual que el Dockerfile.
+     */
+    private void prepare() throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        Files.deleteIfExists(archive);
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(),
+            "extract", "--destination", workDir.resolve("app").toString(), "--force"), "extract.log");
+
+        for (String suffix : List.of(".mv.db", ".trace.db")) {
+            Files.deleteIfExists(workDir.resolve("authdb" + suffix));
+        }
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startApplication(
+                "--spring.datasource.url=" + databaseUrl, "--spring.jpa.hibernate.ddl-auto=create")) {
+            context.getBean(UserService.class).register(BenchmarkSupport.newUser(0));
+        }
+
+        List<String> training = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive, "-Xlog:cds=off",
+            "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh", "-cp", classpath, MAIN_CLASS));
+        training.addAll(applicationArgs(0, List.of("--spring.profiles.active=prod")));
+        run(training, "cds-training.log");
+    }
+
+    private void report(String variant, int runs, List<String> jvmArgs, List<String> args)
+            throws IOException, InterruptedException {
+        long[] total = new long[runs];
+        long[] login = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] sample = measure(variant, jvmArgs, args);
+            total[i] = sample[0];
+            login[i] = sample[1];
+        }
+        Arrays.sort(total);
+        Arrays.sort(login);
+        System.out.printf("%-14s %10d %10d %10d %14d%n", variant, total[0], total[runs / 2], total[runs - 1], login[runs / 2]);
+    }
+
+    /**
+     * Lanza un proceso y repite el login hasta obtener 200.
+     *
+     * @return Milisegundos hasta el primer login exitoso y duración de ese login.
+     */
+    private long[] measure(String variant, List<String> jvmArgs, List<String> args) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS));
+        command.addAll(applicationArgs(port, args));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"user0\",\"password\":\"" + BenchmarkSupport.PASSWORD + "\"}"))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = start(command, variant.replace('+', '-') + ".log");
+        try {
+            long deadline = start + START_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La variante " + variant + " terminó con código " + process.exitValue());
+                }
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long end = System.nanoTime();
+                        return new long[] {TimeUnit.NANOSECONDS.toMillis(end - start), TimeUnit.NANOSECONDS.toMillis(end - sent)};
+                    }
+                } catch (ConnectException | HttpTimeoutException e) {
+                    // Tomcat aún no acepta conexiones
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("La variante " + variant + " no respondió al login en " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> applicationArgs(int port, List<String> args) {
+        List<String> all = new ArrayList<>(List.of(
+            "--spring.config.additional-location=" + h2Properties,
+            "--spring.datasource.url=" + databaseUrl,
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.devtools.restart.enabled=false",
+            "--server.port=" + port));
+        all.addAll(args);
+        return all;
+    }
+
+    private void run(List<String> command, String log) throws IOException, InterruptedException {
+        Process process = start(command, log);
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " terminó con código " + exit
+                + " (ver " + workDir.resolve(log) + ")");
+        }
+    }
+
+    private Process start(List<String> command, String log) throws IOException {
+        return new ProcessBuilder(command)
+            .directory(workDir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(workDir.resolve(log).toFile())
+            .start();
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
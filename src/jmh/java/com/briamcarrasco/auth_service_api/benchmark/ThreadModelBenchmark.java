@@ -0,0 +1,91 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import com.briamcarrasco.auth_service_api.security.TokenService;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compara el modelo de un hilo de plataforma por petición con el modo de hilos virtuales,
+ * enviando peticiones HTTP concurrentes a {@code GET /users/{id}} a través de Tomcat.
+ * H2 no tiene latencia de red; para cifras representativas de Oracle se pueden pasar
+ * argumentos de Spring adicionales con {@code -Dbench.args="--spring.datasource.url=..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> ids;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.threads.virtual.enabled=" + virtualThreads);
+        String extra = System.getProperty("bench.args", "").trim();
+        if (!extra.isEmpty()) {
+            args.addAll(List.of(extra.split("\\s+")));
+        }
+        context = BenchmarkSupport.startApplication(args.toArray(String[]::new));
+        UserRepository repository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(BenchmarkSupport.newUser(i));
+        }
+        List<User> saved = repository.saveAll(users);
+        ids = saved.stream().map(User::getId).toList();
+        authorization = "Bearer " + context.getBean(TokenService.class).issue(UserProfile.from(saved.get(0))).accessToken();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUserById() throws IOException, InterruptedException {
+        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/" + id))
+            .header("Authorization", authorization)
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,96 @@
+package com.briamcarrasco.auth_service_api.benchmark;
+
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Benchmarks de los caminos críticos de {@link UserService}: login, registro y consultas.
+ * Se reportan como throughput y como muestreo de latencia (p50/p99).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1000"})
+    private int seedUsers;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private List<Long> ids;
+    private final AtomicLong sequence = new AtomicLong(1_000_000);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        userService = context.getBean(UserService.class);
+        UserRepository repository = context.getBean(UserRepository.class);
+
+        // Se reutiliza un único hash para poblar la tabla sin pagar BCrypt por cada fila.
+        String hash = context.getBean(PasswordEncoder.class).encode(BenchmarkSupport.PASSWORD);
+        List<User> users = new ArrayList<>(seedUsers);
+        for (int i = 0; i < seedUsers; i++) {
+            User user = BenchmarkSupport.newUser(i);
+            user.setPassword(hash);
+            users.add(user);
+        }
+        ids = repository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<?> login() {
+        int n = ThreadLocalRandom.current().nextInt(seedUsers);
+        return userService.login("user" + n, BenchmarkSupport.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<?> loginWrongPassword() {
+        int n = ThreadLocalRandom.current().nextInt(seedUsers);
+        return userService.login("user" + n, "incorrecta");
+    }
+
+    @Benchmark
+    public Object register() {
+        return userService.register(BenchmarkSupport.newUser(sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Object findById() {
+        return userService.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Object findAll() {
+        return userService.findAll();
+    }
+}
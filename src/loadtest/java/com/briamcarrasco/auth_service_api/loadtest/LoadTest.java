@@ -0,0 +1,161 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import com.briamcarrasco.auth_service_api.AuthServiceApiApplication;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import com.briamcarrasco.auth_service_api.security.TokenService;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Prueba de carga de extremo a extremo: levanta la aplicación con el perfil "h2", siembra usuarios
+ * y ejecuta una mezcla de operaciones HTTP a tasa constante (modelo abierto) a través de Tomcat,
+ * Spring MVC, Spring Security e Hibernate. Reporta por operación los percentiles de latencia
+ * corregidos por omisión coordinada y termina con código 1 si algún p99 supera su presupuesto
+ * o si la tasa de errores supera {@code loadtest.max-error-rate}.
+ *
+ * <p>Ejecutar con {@code mvn -Ploadtest test-compile exec:exec}; ver {@link LoadTestOptions}.
+ */
+public final class LoadTest {
+
+    /**
+     * Contraseña de todos los usuarios sembrados y registrados.
+     */
+    static final String PASSWORD = "P@ssw0rd!";
+
+    private static final int SEED_CHUNK = 1000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        boolean passed;
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            // El límite de intentos de login rechazaría la carga sintética desde una sola IP.
+            "--auth.login.throttle.enabled=false"));
+        arguments.addAll(List.of(args));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApiApplication.class)
+                .profiles("h2")
+                .run(arguments.toArray(String[]::new))) {
+            long[] ids = seed(context, options.users());
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String authorization = "Bearer " + context.getBean(TokenService.class)
+                .issue(context.getBean(UserRepository.class).findCredentialsById(ids[0]).orElseThrow().toProfile())
+                .accessToken();
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            OpenModelDriver driver = new OpenModelDriver(client, new Workload(baseUrl, authorization, ids),
+                options.mix(), options.maxInFlight());
+
+            System.out.printf("Calentamiento: %s a %.0f req/s%n", options.warmup(), options.rate());
+            driver.run(options.rate(), options.warmup());
+            System.out.printf("Medición: %s a %.0f req/s%n", options.duration(), options.rate());
+            Map<Operation, OperationStats> results = driver.run(options.rate(), options.duration());
+
+            passed = report(results, options, System.out);
+            if (driver.pending() > 0) {
+                System.out.printf("%d peticiones seguían sin respuesta al terminar%n", driver.pending());
+                passed = false;
+            }
+            writeDistributions(results, options);
+        }
+        System.out.println(passed ? "RESULTADO: OK" : "RESULTADO: FALLÓ");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Inserta los usuarios por bloques con un único hash de contraseña (BCrypt por usuario haría
+     * la siembra más lenta que la prueba). El usuario {@code user<n>} queda en la posición n.
+     */
+    private static long[] seed(ConfigurableApplicationContext context, int count) {
+        UserRepository repository = context.getBean(UserRepository.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        long[] ids = new long[count];
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            List<User> chunk = new ArrayList<>();
+            for (int n = from; n < Math.min(from + SEED_CHUNK, count); n++) {
+                User user = new User();
+                user.setName("Nombre" + n);
+                user.setFirstLastname("Apellido" + n);
+                user.setSecondLastname("Segundo" + n);
+                user.setEmail("user" + n + "@load.local");
+                user.setUsername("user" + n);
+                user.setPassword(hash);
+                user.setRole("users");
+                user.setRut(Rut.format(10_000_000L + n));
+                chunk.add(user);
+            }
+            List<User> saved = repository.saveAll(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                ids[from + i] = saved.get(i).getId();
+            }
+        }
+        System.out.printf("Sembrados %d usuarios%n", count);
+        return ids;
+    }
+
+    private static boolean report(Map<Operation, OperationStats> results, LoadTestOptions options, PrintStream out) {
+        boolean passed = true;
+        double seconds = options.duration().toMillis() / 1000.0;
+        out.printf("%-20s %8s %8s %8s %9s %9s %9s %9s %9s %12s %9s  %s%n",
+            "operación", "ok", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+            "servicio p99", "budget", "");
+        for (Map.Entry<Operation, OperationStats> entry : results.entrySet()) {
+            Operation operation = entry.getKey();
+            OperationStats stats = entry.getValue();
+            Histogram latency = stats.latency();
+            long total = stats.ok() + stats.errors();
+            double p99 = millis(latency.getValueAtPercentile(99));
+            Long budget = options.budgets().get(operation);
+            boolean overBudget = budget != null && p99 > budget;
+            boolean tooManyErrors = total > 0 && (double) stats.errors() / total > options.maxErrorRate();
+            passed &= !overBudget && !tooManyErrors;
+            out.printf("%-20s %8d %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %12.1f %9s  %s%n",
+                operation.label(), stats.ok(), stats.errors(), total / seconds,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)), p99,
+                millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                millis(stats.service().getValueAtPercentile(99)),
+                budget == null ? "-" : budget.toString(),
+                overBudget ? "p99 sobre el presupuesto" : tooManyErrors ? "demasiados errores" : "");
+            if (stats.errors() > 0) {
+                out.println("    errores: " + stats.errorsByCause().entrySet().stream()
+                    .map(e -> e.getKey() + "=" + e.getValue().sum())
+                    .collect(Collectors.joining(", ")));
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Escribe la distribución completa de percentiles de cada operación (formato .hgrm de HdrHistogram).
+     */
+    private static void writeDistributions(Map<Operation, OperationStats> results, LoadTestOptions options) throws IOException {
+        Files.createDirectories(options.outputDir());
+        for (Map.Entry<Operation, OperationStats> entry : results.entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(options.outputDir().resolve(entry.getKey().key() + ".hgrm")))) {
+                // Valores registrados en microsegundos; la salida queda en milisegundos.
+                entry.getValue().latency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Distribuciones en " + options.outputDir().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
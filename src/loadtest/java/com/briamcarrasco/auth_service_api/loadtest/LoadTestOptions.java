@@ -0,0 +1,58 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema {@code loadtest.*}
+ * (el perfil Maven {@code loadtest} les da valores por defecto).
+ *
+ * @param users        Usuarios sembrados antes de la prueba.
+ * @param rate         Peticiones por segundo objetivo (todas las operaciones).
+ * @param warmup       Duración del calentamiento (no se reporta).
+ * @param duration     Duración de la medición.
+ * @param mix          Peso relativo de cada operación.
+ * @param budgets      p99 máximo en milisegundos por operación (las que no aparecen no se validan).
+ * @param maxInFlight  Peticiones simultáneas máximas; las que no se pueden enviar cuentan como error.
+ * @param maxErrorRate Fracción máxima de errores por operación.
+ * @param outputDir    Directorio donde se escriben las distribuciones de percentiles.
+ */
+record LoadTestOptions(int users, double rate, Duration warmup, Duration duration,
+                       Map<Operation, Integer> mix, Map<Operation, Long> budgets,
+                       int maxInFlight, double maxErrorRate, Path outputDir) {
+
+    static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+            Integer.parseInt(System.getProperty("loadtest.users", "2000")),
+            Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+            DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s")),
+            DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+            parse(System.getProperty("loadtest.mix", "login=10,register=5,getUser=75,listUsers=10"), Integer::valueOf),
+            parse(System.getProperty("loadtest.budgets", "login=500,register=500,getUser=50,listUsers=500"), Long::valueOf),
+            Integer.parseInt(System.getProperty("loadtest.max-in-flight", "500")),
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+            Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+    }
+
+    /**
+     * Interpreta una lista {@code operacion=valor,...}.
+     */
+    private static <V> Map<Operation, V> parse(String spec, Function<String, V> value) {
+        Map<Operation, V> result = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida '" + entry + "', se esperaba operacion=valor");
+            }
+            result.put(Operation.byName(parts[0].trim()), value.apply(parts[1].trim()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto: las peticiones se programan a intervalos fijos según la
+ * tasa objetivo y se envían de forma asíncrona, sin esperar a que terminen las anteriores. Así la
+ * llegada de peticiones no depende de lo rápido que responda el servidor, como ocurre con usuarios reales.
+ */
+final class OpenModelDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelDriver(HttpClient client, Workload workload, Map<Operation, Integer> mix, int maxInFlight) {
+        this.client = client;
+        this.workload = workload;
+        this.maxInFlight = maxInFlight;
+        this.operations = mix.entrySet().stream()
+            .filter(e -> e.getValue() > 0)
+            .map(Map.Entry::getKey)
+            .toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("loadtest.mix no tiene operaciones con peso mayor a cero");
+        }
+    }
+
+    /**
+     * Ejecuta una fase a la tasa indicada y espera a que terminen las peticiones en curso.
+     *
+     * @param rate     Peticiones por segundo.
+     * @param duration Duración de la fase.
+     * @return Resultados por operación.
+     */
+    Map<Operation, OperationStats> run(double rate, Duration duration) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Operation operation = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            OperationStats operationStats = stats.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                operationStats.error("no enviada (max-in-flight)");
+                continue;
+            }
+            HttpRequest request = workload.request(operation, random);
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long done = System.nanoTime();
+                inFlight.decrementAndGet();
+                String cause = failure != null
+                    ? (failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure)
+                        .getClass().getSimpleName()
+                    : response.statusCode() / 100 == 2 ? null : "HTTP " + response.statusCode();
+                operationStats.record(intended, sent, done, cause);
+            });
+        }
+
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    /**
+     * @return Peticiones que seguían sin respuesta al terminar la última fase.
+     */
+    int pending() {
+        return inFlight.get();
+    }
+
+    private Operation pick(int ticket) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
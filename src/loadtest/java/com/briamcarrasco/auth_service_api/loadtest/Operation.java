@@ -0,0 +1,47 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Operaciones HTTP que ejecuta la prueba de carga.
+ */
+enum Operation {
+
+    REGISTER("register", "POST /auth/register"),
+    LOGIN("login", "POST /auth/login"),
+    GET_USER("getUser", "GET /users/{id}"),
+    LIST_USERS("listUsers", "GET /users");
+
+    private final String key;
+    private final String label;
+
+    Operation(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    /**
+     * @return Nombre usado en {@code loadtest.mix} y {@code loadtest.budgets}.
+     */
+    String key() {
+        return key;
+    }
+
+    /**
+     * @return Método y ruta, para el reporte.
+     */
+    String label() {
+        return label;
+    }
+
+    static Operation byName(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida '" + key + "'; válidas: "
+            + Arrays.stream(values()).map(Operation::key).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,72 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultados de una operación durante una fase de la prueba.
+ * La latencia se mide desde el instante en que la petición debía enviarse según la tasa objetivo
+ * (corrección de omisión coordinada): si el servidor se atrasa, las peticiones siguientes
+ * acumulan ese atraso en lugar de desaparecer de la medición. El tiempo de servicio se mide
+ * desde el envío real, solo como referencia.
+ */
+final class OperationStats {
+
+    private final Histogram latency = new ConcurrentHistogram(3);
+    private final Histogram service = new ConcurrentHistogram(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una respuesta.
+     *
+     * @param intendedNanos Instante programado de envío.
+     * @param sentNanos     Instante real de envío.
+     * @param doneNanos     Instante en que llegó la respuesta o el error.
+     * @param cause         null si la respuesta fue exitosa, o la causa del error (código HTTP o excepción).
+     */
+    void record(long intendedNanos, long sentNanos, long doneNanos, String cause) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos));
+        service.recordValue(TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos));
+        if (cause == null) {
+            ok.increment();
+        } else {
+            error(cause);
+        }
+    }
+
+    /**
+     * Registra un error sin latencia (por ejemplo, una petición que no se pudo enviar).
+     *
+     * @param cause Causa del error.
+     */
+    void error(String cause) {
+        errors.increment();
+        errorsByCause.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+
+    Histogram latency() {
+        return latency;
+    }
+
+    Histogram service() {
+        return service;
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Map<String, LongAdder> errorsByCause() {
+        return errorsByCause;
+    }
+}
@@ -0,0 +1,72 @@
+package com.briamcarrasco.auth_service_api.loadtest;
+
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Construye las peticiones de cada operación sobre los usuarios sembrados.
+ * Los registros usan un correlativo propio para no chocar con los usuarios existentes.
+ */
+final class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final String authorization;
+    private final long[] ids;
+    private final AtomicLong registrations;
+    private final URI registerUri;
+    private final URI loginUri;
+    private final URI usersUri;
+
+    /**
+     * @param baseUrl       URL base de la aplicación.
+     * @param authorization Encabezado Authorization para {@code /users/**}.
+     * @param ids           Ids de los usuarios sembrados ({@code user<n>} tiene el id {@code ids[n]}).
+     */
+    Workload(String baseUrl, String authorization, long[] ids) {
+        this.baseUrl = baseUrl;
+        this.authorization = authorization;
+        this.ids = ids;
+        this.registrations = new AtomicLong(ids.length);
+        this.registerUri = URI.create(baseUrl + "/auth/register");
+        this.loginUri = URI.create(baseUrl + "/auth/login");
+        this.usersUri = URI.create(baseUrl + "/users");
+    }
+
+    HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case REGISTER -> json(registerUri, registration(registrations.getAndIncrement()));
+            case LOGIN -> json(loginUri, "{\"username\":\"user" + random.nextInt(ids.length)
+                + "\",\"password\":\"" + LoadTest.PASSWORD + "\"}");
+            case GET_USER -> authorized(URI.create(baseUrl + "/users/" + ids[random.nextInt(ids.length)]));
+            case LIST_USERS -> authorized(usersUri);
+        };
+    }
+
+    private static String registration(long n) {
+        return "{\"name\":\"Nombre" + n + "\",\"firstLastname\":\"Apellido" + n + "\",\"secondLastname\":\"Segundo" + n
+            + "\",\"email\":\"user" + n + "@load.local\",\"username\":\"user" + n
+            + "\",\"password\":\"" + LoadTest.PASSWORD + "\",\"role\":\"users\",\"rut\":\"" + Rut.format(10_000_000L + n) + "\"}";
+    }
+
+    private static HttpRequest json(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest authorized(URI uri) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", authorization)
+            .GET()
+            .build();
+    }
+}
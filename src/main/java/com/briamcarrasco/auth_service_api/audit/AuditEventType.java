@@ -0,0 +1,45 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+/**
+ * Tipos de evento de auditoría. El código de cada tipo es el byte que se escribe en el log,
+ * por lo que no debe cambiar para un tipo existente.
+ */
+public enum AuditEventType {
+
+    REGISTER(1),
+    LOGIN_SUCCESS(2),
+    LOGIN_FAILURE(3),
+    UPDATE(4),
+    DELETE(5);
+
+    private static final AuditEventType[] BY_CODE = new AuditEventType[8];
+
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    AuditEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * @return Código del tipo en el log binario.
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * Obtiene el tipo a partir de su código en el log binario.
+     *
+     * @param code Código leído.
+     * @return Tipo correspondiente, o null si el código es desconocido.
+     */
+    public static AuditEventType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Log de auditoría asíncrono de las operaciones de usuarios.
+ *
+ * <p>Los hilos de las peticiones solo copian el evento a un {@link AuditRingBuffer} preasignado;
+ * un único hilo escritor lo drena por lotes hacia segmentos binarios mapeados en memoria
+ * ({@link AuditSegmentWriter}), que se leen con {@link AuditLogReader}. Si el buffer está lleno,
+ * la política {@code DROP} descarta el evento y lo cuenta en {@code auth.audit.dropped}, mientras que
+ * {@code BLOCK} espera a que el escritor libere espacio.</p>
+ */
+@Component
+public class AuditLog {
+
+    /**
+     * Qué hacer cuando el buffer está lleno.
+     */
+    public enum OverflowPolicy {
+        /** Descarta el evento sin demorar la petición. */
+        DROP,
+        /** Espera a que el escritor libere espacio. */
+        BLOCK
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final boolean enabled;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long idleNanos;
+    private final Duration flushInterval;
+    private final AuditRingBuffer ring;
+    private final AuditSegmentWriter segments;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(@Value("${auth.audit.enabled:true}") boolean enabled,
+                    @Value("${auth.audit.directory:./data/audit}") Path directory,
+                    @Value("${auth.audit.segment-size:64MB}") DataSize segmentSize,
+                    @Value("${auth.audit.max-segments:16}") int maxSegments,
+                    @Value("${auth.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${auth.audit.batch-size:512}") int batchSize,
+                    @Value("${auth.audit.overflow:DROP}") OverflowPolicy overflowPolicy,
+                    @Value("${auth.audit.idle-wait:1ms}") Duration idleWait,
+                    @Value("${auth.audit.flush-interval:1s}") Duration flushInterval,
+                    MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.idleNanos = idleWait.toNanos();
+        this.flushInterval = flushInterval;
+        this.ring = new AuditRingBuffer(bufferSize);
+        this.segments = enabled ? new AuditSegmentWriter(directory, Math.toIntExact(segmentSize.toBytes()), maxSegments) : null;
+        Gauge.builder("auth.audit.backlog", ring, AuditRingBuffer::size)
+            .description("Eventos de auditoría pendientes de escribir")
+            .register(meterRegistry);
+        this.written = Counter.builder("auth.audit.written")
+            .description("Eventos de auditoría escritos en el log")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("auth.audit.dropped")
+            .description("Eventos de auditoría descartados por buffer lleno")
+            .register(meterRegistry);
+        this.failed = Counter.builder("auth.audit.failed")
+            .description("Eventos de auditoría que no se pudieron escribir")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Inicia el hilo escritor.
+     */
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publica un evento de auditoría sin esperar su escritura.
+     *
+     * @param type    Tipo de evento.
+     * @param userId  Usuario afectado, o 0 si no se conoce (por ejemplo, un login fallido).
+     * @param subject Nombre de usuario u otro identificador; se trunca a 64 bytes UTF-8.
+     */
+    public void record(AuditEventType type, long userId, CharSequence subject) {
+        if (!running) {
+            return;
+        }
+        long sequence;
+        while ((sequence = ring.tryClaim()) < 0) {
+            if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        ring.publish(sequence, System.currentTimeMillis(), type.code(), userId, subject);
+    }
+
+    private void writeLoop() {
+        AuditRingBuffer.Handler handler = this::append;
+        long flushIntervalNanos = flushInterval.toNanos();
+        long lastFlush = System.nanoTime();
+        boolean pending = false;
+        while (true) {
+            int count = ring.drain(handler, batchSize);
+            pending |= count > 0;
+            if (pending && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                flush();
+                lastFlush = System.nanoTime();
+                pending = false;
+            }
+            if (count == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    private void flush() {
+        try {
+            segments.flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo forzar a disco el segmento de auditoría", e);
+        }
+    }
+
+    private void append(long timestamp, byte type, long userId, byte[] subject, int offset, int length) {
+        try {
+            segments.append(timestamp, type, userId, subject, offset, length);
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("No se pudo escribir el evento de auditoría", e);
+        }
+    }
+
+    /**
+     * Detiene el escritor después de drenar los eventos pendientes y cierra el segmento actual.
+     */
+    @PreDestroy
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            segments.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el segmento de auditoría", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lector de los segmentos escritos por {@link AuditLog}.
+ *
+ * <p>Uso por línea de comandos (un evento por línea):</p>
+ * <pre>
+ * java -cp target/classes com.briamcarrasco.auth_service_api.audit.AuditLogReader ./data/audit
+ * </pre>
+ * Acepta directorios (se leen todos sus segmentos en orden) o archivos de segmento.
+ */
+public final class AuditLogReader {
+
+    private AuditLogReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: AuditLogReader <directorio|segmento>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            read(Path.of(arg), System.out::println);
+        }
+    }
+
+    /**
+     * Lee todos los eventos de un segmento o de un directorio de segmentos.
+     *
+     * @param path     Segmento o directorio.
+     * @param consumer Recibe cada evento en orden.
+     * @throws IOException si un archivo no se puede leer o no es un segmento de auditoría.
+     */
+    public static void read(Path path, Consumer<AuditRecord> consumer) throws IOException {
+        List<Path> segments = Files.isDirectory(path) ? AuditSegmentWriter.listSegments(path) : List.of(path);
+        for (Path segment : segments) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    private static void readSegment(Path segment, Consumer<AuditRecord> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != AuditSegmentWriter.MAGIC) {
+            throw new IOException("No es un segmento de auditoría: " + segment);
+        }
+        byte[] subject = new byte[AuditRingBuffer.SUBJECT_BYTES];
+        int minimum = AuditSegmentWriter.RECORD_HEADER_BYTES - Integer.BYTES;
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            // Largo 0: final del segmento (o registro incompleto tras una caída).
+            if (length < minimum || length > buffer.remaining()) {
+                break;
+            }
+            long timestamp = buffer.getLong();
+            AuditEventType type = AuditEventType.fromCode(buffer.get());
+            long userId = buffer.getLong();
+            int subjectLength = buffer.getShort();
+            if (subjectLength != length - minimum || subjectLength > subject.length) {
+                break;
+            }
+            buffer.get(subject, 0, subjectLength);
+            consumer.accept(new AuditRecord(Instant.ofEpochMilli(timestamp), type, userId,
+                new String(subject, 0, subjectLength, StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import java.time.Instant;
+
+/**
+ * Evento de auditoría leído desde el log binario.
+ *
+ * @param timestamp Momento en que se registró el evento.
+ * @param type      Tipo de evento, o null si el código es desconocido.
+ * @param userId    Usuario afectado (0 si no se conoce).
+ * @param subject   Nombre de usuario u otro identificador.
+ */
+public record AuditRecord(Instant timestamp, AuditEventType type, long userId, String subject) {
+
+    @Override
+    public String toString() {
+        return timestamp + " " + (type != null ? type : "UNKNOWN") + " userId=" + userId + " subject=" + subject;
+    }
+}
@@ -0,0 +1,170 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Buffer circular sin locks de múltiples productores y un único consumidor para eventos de auditoría.
+ *
+ * <p>Todos los slots se reservan al crearlo en arreglos primitivos de tamaño fijo (el sujeto se
+ * guarda como hasta {@link #SUBJECT_BYTES} bytes UTF-8), así que publicar un evento no asigna
+ * memoria. Un productor reserva una secuencia con un CAS, escribe el slot y lo publica guardando
+ * su secuencia en {@code published}; el consumidor avanza mientras el siguiente slot esté publicado
+ * y libera los slots leídos al actualizar {@code consumed}.</p>
+ */
+final class AuditRingBuffer {
+
+    /** Máximo de bytes UTF-8 del sujeto de un evento; los más largos se truncan. */
+    static final int SUBJECT_BYTES = 64;
+
+    /**
+     * Recibe los eventos drenados. El sujeto se entrega como un rango del arreglo interno
+     * y solo es válido durante la llamada.
+     */
+    interface Handler {
+        void onEvent(long timestamp, byte type, long userId, byte[] subject, int offset, int length);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final byte[] types;
+    private final long[] userIds;
+    private final byte[] subjects;
+    private final int[] subjectLengths;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    /**
+     * @param capacity Cantidad de slots; debe ser potencia de dos.
+     */
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad del buffer de auditoría debe ser potencia de dos");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.types = new byte[capacity];
+        this.userIds = new long[capacity];
+        this.subjects = new byte[capacity * SUBJECT_BYTES];
+        this.subjectLengths = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Reserva un slot.
+     *
+     * @return Secuencia reservada, o -1 si el buffer está lleno.
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                return -1;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Escribe y publica el evento en un slot previamente reservado con {@link #tryClaim()}.
+     */
+    void publish(long sequence, long timestamp, byte type, long userId, CharSequence subject) {
+        int index = (int) (sequence & mask);
+        timestamps[index] = timestamp;
+        types[index] = type;
+        userIds[index] = userId;
+        subjectLengths[index] = encodeUtf8(subject, subjects, index * SUBJECT_BYTES, SUBJECT_BYTES);
+        published.set(index, sequence);
+    }
+
+    /**
+     * Entrega al handler hasta {@code max} eventos publicados consecutivos y libera sus slots.
+     * Solo debe llamarse desde el hilo consumidor.
+     *
+     * @return Cantidad de eventos entregados.
+     */
+    int drain(Handler handler, int max) {
+        long next = consumed;
+        int count = 0;
+        while (count < max) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next) {
+                break;
+            }
+            handler.onEvent(timestamps[index], types[index], userIds[index],
+                subjects, index * SUBJECT_BYTES, subjectLengths[index]);
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = next;
+        }
+        return count;
+    }
+
+    /**
+     * @return Eventos reservados que el consumidor aún no procesa.
+     */
+    long size() {
+        return claimed.get() - consumed;
+    }
+
+    /**
+     * Codifica en UTF-8 sin asignar memoria, truncando en un límite de carácter.
+     *
+     * @return Cantidad de bytes escritos.
+     */
+    static int encodeUtf8(CharSequence value, byte[] target, int offset, int max) {
+        if (value == null) {
+            return 0;
+        }
+        int position = offset;
+        int limit = offset + max;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (position + 1 > limit) {
+                    break;
+                }
+                target[position++] = (byte) c;
+            } else if (c < 0x800) {
+                if (position + 2 > limit) {
+                    break;
+                }
+                target[position++] = (byte) (0xC0 | (c >> 6));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                if (position + 4 > limit) {
+                    break;
+                }
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (position + 1 > limit) {
+                    break;
+                }
+                target[position++] = '?';
+            } else {
+                if (position + 3 > limit) {
+                    break;
+                }
+                target[position++] = (byte) (0xE0 | (c >> 12));
+                target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position - offset;
+    }
+}
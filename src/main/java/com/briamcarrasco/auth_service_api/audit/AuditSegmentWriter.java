@@ -0,0 +1,148 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escribe los eventos de auditoría en segmentos de tamaño fijo mapeados en memoria.
+ *
+ * <p>Formato de un segmento: un entero {@link #MAGIC} seguido de registros
+ * {@code [int largo][long timestamp][byte tipo][long userId][short largoSujeto][sujeto]},
+ * donde el largo cuenta los bytes que siguen al propio entero. El largo se escribe al final,
+ * de modo que un registro cortado por una caída queda con largo 0 y el lector se detiene ahí.
+ * Al llenarse un segmento se abre uno nuevo y se eliminan los más antiguos por sobre
+ * {@code maxSegments}. No es seguro para uso concurrente: lo usa solo el hilo escritor.</p>
+ */
+final class AuditSegmentWriter implements AutoCloseable {
+
+    /** "AUD1" en ASCII. */
+    static final int MAGIC = 0x41554431;
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".log";
+    static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES + Short.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    AuditSegmentWriter(Path directory, int segmentSize, int maxSegments) {
+        if (segmentSize < Integer.BYTES + RECORD_HEADER_BYTES + AuditRingBuffer.SUBJECT_BYTES) {
+            throw new IllegalArgumentException("El tamaño de segmento de auditoría es demasiado pequeño");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de auditoría " + directory, e);
+        }
+    }
+
+    /**
+     * Agrega un registro al segmento actual, abriendo uno nuevo si no cabe.
+     */
+    void append(long timestamp, byte type, long userId, byte[] subject, int offset, int length) throws IOException {
+        int recordSize = RECORD_HEADER_BYTES + length;
+        if (buffer == null || buffer.remaining() < recordSize) {
+            rotate();
+        }
+        int start = buffer.position();
+        buffer.position(start + Integer.BYTES);
+        buffer.putLong(timestamp).put(type).putLong(userId).putShort((short) length).put(subject, offset, length);
+        buffer.putInt(start, recordSize - Integer.BYTES);
+    }
+
+    /**
+     * Fuerza a disco lo escrito en el segmento actual.
+     */
+    void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        Path segment = createSegment();
+        channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(MAGIC);
+        deleteOldSegments();
+    }
+
+    private Path createSegment() throws IOException {
+        long name = System.currentTimeMillis();
+        while (true) {
+            try {
+                return Files.createFile(directory.resolve(PREFIX + name + SUFFIX));
+            } catch (FileAlreadyExistsException e) {
+                name++;
+            }
+        }
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Lista los segmentos de un directorio del más antiguo al más reciente.
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                })
+                .sorted((a, b) -> Long.compare(segmentOrder(a), segmentOrder(b)))
+                .toList();
+        }
+    }
+
+    private static long segmentOrder(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Fuerza a disco el segmento actual y lo recorta al tamaño escrito.
+     */
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        int written = buffer.position();
+        buffer = null;
+        try {
+            channel.truncate(written);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+}
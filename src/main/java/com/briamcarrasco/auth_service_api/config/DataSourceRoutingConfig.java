@@ -0,0 +1,86 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Enrutamiento de lecturas a una réplica (opcional).
+ * Se activa con {@code auth.datasource.routing.enabled=true}: el primario se configura con
+ * {@code spring.datasource.*} y la réplica con {@code auth.datasource.replica.*}, cada uno con
+ * su propio pool de Hikari ({@code spring.datasource.hikari.*} y {@code auth.datasource.replica.hikari.*}).
+ * Las transacciones de solo lectura van a la réplica salvo las excepciones de {@link ReadYourWrites}.
+ * Con AOT la condición se evalúa al construir, así que el flag no puede cambiarse al ejecutar.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Pool del primario, con las mismas propiedades que usaría Spring Boot sin enrutamiento.
+     *
+     * @param properties Propiedades {@code spring.datasource.*}.
+     * @return Pool de Hikari del primario.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Propiedades de conexión de la réplica (url, username, password, driver-class-name).
+     * No se inyecta por tipo para no competir con las propiedades del primario.
+     *
+     * @return Propiedades {@code auth.datasource.replica.*}.
+     */
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("auth.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Pool de la réplica, dimensionado por separado del primario.
+     *
+     * @return Pool de Hikari de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("auth.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = replicaDataSourceProperties().initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    /**
+     * DataSource que usan JPA y las transacciones.
+     *
+     * @param primary        Pool del primario.
+     * @param replica        Pool de la réplica.
+     * @param readYourWrites Lecturas que deben ir al primario tras una escritura.
+     * @param meterRegistry  Registro de métricas.
+     * @return Proxy de conexión diferida sobre el DataSource de enrutamiento.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWrites readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replica, readYourWrites, meterRegistry));
+    }
+}
@@ -0,0 +1,65 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a la réplica y todo lo demás al primario.
+ * La decisión se toma al pedir la conexión física, por lo que debe usarse detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: así la conexión
+ * se obtiene en la primera sentencia, cuando la transacción ya está marcada como de solo lectura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destino de una conexión.
+     */
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWrites readYourWrites;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    /**
+     * @param primary        Pool del primario (escrituras y lecturas fuera de transacción).
+     * @param replica        Pool de la réplica.
+     * @param readYourWrites Excepciones de lectura que deben ir al primario.
+     * @param meterRegistry  Registro de métricas.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.replicaReads = Counter.builder("auth.datasource.reads")
+            .description("Transacciones de solo lectura según el pool que las atendió")
+            .tag("target", "replica")
+            .register(meterRegistry);
+        this.primaryReads = Counter.builder("auth.datasource.reads")
+            .description("Transacciones de solo lectura según el pool que las atendió")
+            .tag("target", "primary")
+            .register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (readYourWrites.routeToPrimary()) {
+            primaryReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+}
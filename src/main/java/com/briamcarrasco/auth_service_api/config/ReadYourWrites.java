@@ -0,0 +1,125 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lectura de lo propio escrito cuando las lecturas van a una réplica con retraso.
+ * Tras una escritura, durante {@code auth.datasource.sticky-window} las lecturas del usuario
+ * modificado (por id o username) y las del usuario autenticado que escribió se envían al primario.
+ * Si el enrutamiento está deshabilitado todas las operaciones son inmediatas.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${auth.datasource.routing.enabled:false}") boolean enabled,
+                          @Value("${auth.datasource.sticky-window:5s}") Duration window,
+                          @Value("${auth.datasource.sticky-max-keys:100000}") long maxKeys) {
+        this.enabled = enabled;
+        this.recentWrites = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterWrite(window).build();
+    }
+
+    /**
+     * Registra una escritura sobre un usuario y marca también al usuario autenticado que la hizo.
+     *
+     * @param id        Identificador del usuario modificado.
+     * @param usernames Nombres de usuario afectados (anterior y nuevo); se ignoran los null.
+     */
+    public void markWritten(long id, String... usernames) {
+        if (!enabled) {
+            return;
+        }
+        recentWrites.put(idKey(id), Boolean.TRUE);
+        for (String username : usernames) {
+            if (username != null) {
+                recentWrites.put(usernameKey(username), Boolean.TRUE);
+            }
+        }
+        String caller = callerKey();
+        if (caller != null) {
+            recentWrites.put(caller, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Ejecuta una lectura contra el primario, aunque la transacción sea de solo lectura.
+     *
+     * @param read Lectura a ejecutar.
+     * @return Resultado de la lectura.
+     */
+    public <T> T onPrimary(Supplier<T> read) {
+        if (!enabled || PINNED.get() != null) {
+            return read.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    /**
+     * Lee un usuario por id desde el primario si fue modificado dentro de la ventana.
+     *
+     * @param id   Identificador del usuario.
+     * @param read Lectura a ejecutar.
+     * @return Resultado de la lectura.
+     */
+    public <T> T readForUser(long id, Supplier<T> read) {
+        return enabled && recentWrites.getIfPresent(idKey(id)) != null ? onPrimary(read) : read.get();
+    }
+
+    /**
+     * Lee un usuario por username desde el primario si fue modificado dentro de la ventana.
+     *
+     * @param username Nombre de usuario.
+     * @param read     Lectura a ejecutar.
+     * @return Resultado de la lectura.
+     */
+    public <T> T readForUsername(String username, Supplier<T> read) {
+        return enabled && username != null && recentWrites.getIfPresent(usernameKey(username)) != null
+            ? onPrimary(read)
+            : read.get();
+    }
+
+    /**
+     * Indica si la lectura en curso debe ir al primario: dentro de {@link #onPrimary}
+     * o porque el usuario autenticado escribió dentro de la ventana.
+     *
+     * @return true si la lectura debe ir al primario.
+     */
+    boolean routeToPrimary() {
+        if (PINNED.get() != null) {
+            return true;
+        }
+        String caller = callerKey();
+        return caller != null && recentWrites.getIfPresent(caller) != null;
+    }
+
+    private static String callerKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // El subject del token de acceso es el id del usuario.
+        return authentication instanceof JwtAuthenticationToken ? idKey(authentication.getName()) : null;
+    }
+
+    private static String idKey(Object id) {
+        return "id:" + id;
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + username;
+    }
+}
@@ -0,0 +1,66 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del modo de hilos virtuales (opcional).
+ * Se activa con {@code spring.threads.virtual.enabled=true}; en ese modo Spring Boot atiende
+ * las peticiones de Tomcat y las tareas asíncronas con hilos virtuales, por lo que toda la capa
+ * de servicio y repositorio corre sobre ellos. Esta clase agrega el límite de acceso concurrente
+ * a la base de datos y el monitoreo de pinning.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Envuelve el pool de Hikari en un {@link ConcurrencyLimitedDataSource} dimensionado
+     * con el tamaño máximo del pool y el connection-timeout configurados.
+     *
+     * @param meterRegistry Registro de métricas (resuelto de forma diferida).
+     * @return Post-procesador que envuelve los DataSource de Hikari.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(hikari,
+                        hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                    meterRegistry.ifAvailable(registry -> Gauge
+                        .builder("auth.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                        .tag("pool", beanName)
+                        .description("Hilos esperando un permiso para obtener conexión")
+                        .register(registry));
+                    return limited;
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Monitor de pinning de hilos virtuales basado en JFR.
+     *
+     * @param threshold     Duración mínima de pinning a reportar.
+     * @param meterRegistry Registro de métricas.
+     * @return Monitor iniciado.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "auth.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${auth.virtual-threads.pinning-monitor.threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+}
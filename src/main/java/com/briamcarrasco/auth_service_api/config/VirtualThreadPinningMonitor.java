@@ -0,0 +1,57 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detecta hilos virtuales fijados a su hilo portador (pinning) mediante el evento JFR
+ * {@code jdk.VirtualThreadPinned}. Registra un contador y escribe en el log las
+ * primeras frames del stack para ubicar el bloqueo sincronizado (JDBC, Hibernate, etc.).
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream stream;
+    private final Counter pinnedCounter;
+
+    /**
+     * @param threshold     Duración mínima de un pinning para ser reportado.
+     * @param meterRegistry Registro de métricas.
+     */
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+            .description("Hilos virtuales fijados a su portador por sobre el umbral")
+            .register(meterRegistry);
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCounter.increment();
+        if (log.isWarnEnabled()) {
+            List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+            String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+            log.warn("Hilo virtual fijado durante {} ms\n\tat {}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
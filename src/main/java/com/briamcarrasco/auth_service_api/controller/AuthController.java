@@ -1,10 +1,29 @@
 package com.briamcarrasco.auth_service_api.controller;
 
+import com.briamcarrasco.auth_service_api.dto.BatchRegistrationResponse;
+import com.briamcarrasco.auth_service_api.dto.RefreshRequest;
+import com.briamcarrasco.auth_service_api.dto.RevokeRequest;
+import com.briamcarrasco.auth_service_api.dto.TokenResponse;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.exception.ErrorResponses;
 import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.security.JwtConfig;
+import com.briamcarrasco.auth_service_api.security.LoginThrottle;
+import com.briamcarrasco.auth_service_api.security.TokenService;
 import com.briamcarrasco.auth_service_api.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*; 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,6 +31,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
 @RestController
 @RequestMapping("/auth")
@@ -21,6 +41,18 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Value("${auth.users.batch.max-size:50000}")
+    private int maxBatchSize;
+
     @Operation(
         summary = "Registrar un nuevo usuario",
         description = "Registra un usuario en el sistema.",
@@ -36,32 +68,143 @@ public class AuthController {
     )
     @PostMapping("/register")
     public ResponseEntity<User> register(@org.springframework.web.bind.annotation.RequestBody @Valid User user) { // usar RequestBody de Spring aquí
-        System.out.println("Usuario recibido: " + user);
-        System.out.println("RUT recibido: " + user.getRut());
         User newUser = userService.register(user);
         return ResponseEntity.ok(newUser);
     }
 
+    @Operation(
+        summary = "Registro masivo de usuarios",
+        description = "Registra un arreglo JSON de usuarios. Cada usuario se valida por separado y recibe su propio resultado. Requiere un token de rol admin.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            description = "Usuarios a registrar",
+            content = @Content(array = @io.swagger.v3.oas.annotations.media.ArraySchema(schema = @Schema(implementation = User.class)))
+        ),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Resultado por usuario", content = @Content(schema = @Schema(implementation = BatchRegistrationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Lote inválido o demasiado grande", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Sin token de acceso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "El token no es de rol admin", content = @Content)
+        }
+    )
+    @SecurityRequirement(name = JwtConfig.SECURITY_SCHEME)
+    @PostMapping(value = "/register/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchRegistrationResponse> registerBatch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(BatchRegistrationResponse.of(userService.registerBatch(readBatch(request.getInputStream()))));
+    }
+
+    @Operation(
+        summary = "Registro masivo de usuarios (NDJSON)",
+        description = "Registra usuarios enviados como NDJSON (un objeto JSON por línea). Requiere un token de rol admin.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Resultado por usuario", content = @Content(schema = @Schema(implementation = BatchRegistrationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Lote inválido o demasiado grande", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Sin token de acceso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "El token no es de rol admin", content = @Content)
+        }
+    )
+    @SecurityRequirement(name = JwtConfig.SECURITY_SCHEME)
+    @PostMapping(value = "/register/batch", consumes = "application/x-ndjson")
+    public ResponseEntity<BatchRegistrationResponse> registerBatchNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(BatchRegistrationResponse.of(userService.registerBatch(readBatch(request.getInputStream()))));
+    }
+
+    /**
+     * Lee un lote de usuarios, como arreglo JSON o como NDJSON, de a un usuario por vez.
+     * Corta apenas se supera auth.users.batch.max-size, sin cargar el resto del cuerpo en memoria.
+     */
+    private List<User> readBatch(InputStream body) throws IOException {
+        List<User> users = new ArrayList<>();
+        try (MappingIterator<User> iterator = objectMapper.readerFor(User.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (users.size() == maxBatchSize) {
+                    throw new IllegalArgumentException("El lote supera el máximo de " + maxBatchSize + " usuarios");
+                }
+                users.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getLocation() != null
+                ? "JSON inválido en la línea " + e.getLocation().getLineNr()
+                : "JSON inválido");
+        }
+        return users;
+    }
+
     @Operation(
         summary = "Login de usuario",
-        description = "Autentica a un usuario usando username y password.",
+        description = "Autentica a un usuario usando username y password y emite un token de acceso JWT y un refresh token.",
         requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody( // FQN de Swagger
             required = true,
             description = "Credenciales de acceso",
             content = @Content(schema = @Schema(implementation = User.class))
         ),
         responses = {
-            @ApiResponse(responseCode = "200", description = "Usuario autenticado", content = @Content(schema = @Schema(implementation = User.class))),
-            @ApiResponse(responseCode = "401", description = "Credenciales inválidas", content = @Content)
+            @ApiResponse(responseCode = "200", description = "Usuario autenticado", content = @Content(schema = @Schema(implementation = TokenResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Credenciales inválidas", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Demasiados intentos de login", content = @Content)
         }
     )
     @PostMapping("/login")
-    public ResponseEntity<?> login(@org.springframework.web.bind.annotation.RequestBody User user) { // RequestBody de Spring
-        Optional<User> userOpt = userService.login(user.getUsername(), user.getPassword());
+    public ResponseEntity<?> login(@org.springframework.web.bind.annotation.RequestBody User user, // RequestBody de Spring
+                                   HttpServletRequest request) {
+        loginThrottle.acquire(user.getUsername(), request.getRemoteAddr());
+        Optional<UserProfile> userOpt = userService.login(user.getUsername(), user.getPassword());
         if (userOpt.isPresent()) {
-            return ResponseEntity.ok(userOpt.get());
+            return ResponseEntity.ok(tokenService.issue(userOpt.get()));
         } else {
-            return ResponseEntity.status(401).body("Credenciales inválidas");
+            return ErrorResponses.INVALID_CREDENTIALS;
+        }
+    }
+
+    @Operation(
+        summary = "Renovar token de acceso",
+        description = "Canjea un refresh token por un nuevo token de acceso y un nuevo refresh token, sin verificar la contraseña. "
+            + "Cada refresh token se puede usar una sola vez.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens renovados", content = @Content(schema = @Schema(implementation = TokenResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token inválido, ya usado o expirado", content = @Content)
+        }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@org.springframework.web.bind.annotation.RequestBody RefreshRequest request) {
+        Optional<TokenResponse> response = tokenService.refresh(request.refreshToken());
+        if (response.isPresent()) {
+            return ResponseEntity.ok(response.get());
+        } else {
+            return ErrorResponses.INVALID_REFRESH_TOKEN;
+        }
+    }
+
+    @Operation(
+        summary = "Revocar token",
+        description = "Revoca un token de acceso hasta su expiración (logout o deshabilitación) o elimina un refresh token.",
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Token revocado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Token inválido o expirado", content = @Content)
         }
+    )
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@org.springframework.web.bind.annotation.RequestBody RevokeRequest request) {
+        tokenService.revoke(request.token());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+        summary = "Revocar todos los tokens de un usuario",
+        description = "Deshabilita las sesiones actuales del usuario: invalida todos sus tokens de acceso emitidos hasta ahora "
+            + "y sus refresh tokens. Requiere un token de rol admin.",
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Tokens del usuario revocados", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Sin token de acceso", content = @Content),
+            @ApiResponse(responseCode = "403", description = "El token no es de rol admin", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content)
+        }
+    )
+    @SecurityRequirement(name = JwtConfig.SECURITY_SCHEME)
+    @PostMapping("/revoke/users/{id}")
+    public ResponseEntity<Void> revokeUser(@PathVariable Long id) {
+        userService.findById(id);
+        tokenService.revokeUser(id);
+        return ResponseEntity.noContent().build();
     }
 }
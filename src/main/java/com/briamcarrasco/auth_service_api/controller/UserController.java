@@ -1,10 +1,29 @@
 package com.briamcarrasco.auth_service_api.controller;
 
+import com.briamcarrasco.auth_service_api.dto.UserPage;
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.dto.VersionedUserProfile;
 import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.security.JwtConfig;
 import com.briamcarrasco.auth_service_api.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,19 +31,33 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
 
 /**
  * Controlador para la gestión de usuarios.
  * Permite consultar, actualizar y eliminar usuarios.
+ * Todas las operaciones requieren un token de acceso emitido por /auth/login. Solo un administrador
+ * o el propio usuario (subject del token) pueden modificar o eliminar una cuenta, y solo un
+ * administrador puede cambiar el rol.
+ * El usuario por ID se entrega con un ETag fuerte (la versión de la fila): admite GET condicional
+ * con If-None-Match y actualizaciones condicionales con If-Match.
  */
 @RestController
 @RequestMapping("/users")
 @Tag(name = "Usuarios", description = "Operaciones para la gestión de usuarios")
+@SecurityRequirement(name = JwtConfig.SECURITY_SCHEME)
 public class UserController {
 
+    private static final String ADMIN_AUTHORITY = "ROLE_admin";
+    private static final String ROLE_CHANGE_DENIED = "Solo un administrador puede cambiar el rol";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Obtiene la lista de todos los usuarios.
      * @return Lista de usuarios.
@@ -34,42 +67,144 @@ public class UserController {
         description = "Devuelve una lista con todos los usuarios registrados.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Lista de usuarios",
-                content = @Content(schema = @Schema(implementation = User.class)))
+                content = @Content(schema = @Schema(implementation = UserProfile.class)))
         }
     )
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserProfile>> getAllUsers() {
         return ResponseEntity.ok(userService.findAll());
     }
 
+    /**
+     * Obtiene una página de usuarios con paginación keyset sobre el id.
+     * @param after Último id de la página anterior (opcional).
+     * @param size Tamaño de página (opcional).
+     * @return Página de usuarios y cursor siguiente.
+     */
+    @Operation(
+        summary = "Obtener usuarios paginados",
+        description = "Devuelve una página de usuarios ordenada por id. Usa el campo nextCursor como parámetro 'after' para la página siguiente.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Página de usuarios",
+                content = @Content(schema = @Schema(implementation = UserPage.class)))
+        }
+    )
+    @GetMapping("/page")
+    public ResponseEntity<UserPage> getUsersPage(@RequestParam(required = false) Long after,
+                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.findPage(after, size));
+    }
+
+    /**
+     * Exporta todos los usuarios como NDJSON (un objeto JSON por línea) en streaming.
+     * @return Cuerpo que se escribe a medida que se leen las filas.
+     */
+    @Operation(
+        summary = "Exportar usuarios (NDJSON)",
+        description = "Transmite todos los usuarios, un JSON por línea, leyendo la tabla con un cursor de solo avance.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Usuarios en formato NDJSON",
+                content = @Content(mediaType = "application/x-ndjson"))
+        }
+    )
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        // Sin flush por fila: el generador vacía su buffer a la respuesta cuando se llena.
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                userService.exportAll(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    /**
+     * Busca usuarios por nombre, apellidos, email o nombre de usuario.
+     * @param q Texto a buscar.
+     * @param limit Cantidad máxima de resultados.
+     * @return Usuarios ordenados por relevancia.
+     */
+    @Operation(
+        summary = "Buscar usuarios",
+        description = "Busca por prefijo y tolerando errores de tipeo en nombre, apellidos, email y nombre de usuario, usando un índice en memoria.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Usuarios encontrados, ordenados por relevancia"),
+            @ApiResponse(responseCode = "400", description = "Búsqueda vacía", content = @Content)
+        }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<List<UserProfile>> searchUsers(@RequestParam String q,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.search(q, limit));
+    }
+
+    /**
+     * Obtiene un usuario por su RUT.
+     * @param rut RUT del usuario, con o sin puntos y guion.
+     * @return Usuario encontrado o 404 si no existe.
+     */
+    @Operation(
+        summary = "Obtener usuario por RUT",
+        description = "Devuelve un usuario según su RUT (acepta 12.345.678-5, 12345678-5 o 123456785).",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Usuario encontrado",
+                content = @Content(schema = @Schema(implementation = UserProfile.class))),
+            @ApiResponse(responseCode = "400", description = "RUT inválido", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content)
+        }
+    )
+    @GetMapping("/by-rut/{rut}")
+    public ResponseEntity<UserProfile> getUserByRut(@PathVariable String rut) {
+        return ResponseEntity.ok(userService.findByRut(rut));
+    }
+
     /**
      * Obtiene un usuario por su ID.
+     * Si If-None-Match coincide con el ETag se responde 304 sin serializar el cuerpo.
      * @param id Identificador del usuario.
-     * @return Usuario encontrado o 404 si no existe.
+     * @return Usuario encontrado con su ETag, 304 si no cambió o 404 si no existe.
      */
     @Operation(
         summary = "Obtener usuario por ID",
-        description = "Devuelve un usuario según su identificador.",
+        description = "Devuelve un usuario según su identificador, con un ETag. Envíe el ETag en If-None-Match para recibir 304 si no cambió.",
         responses = {
             @ApiResponse(responseCode = "200", description = "Usuario encontrado",
-                content = @Content(schema = @Schema(implementation = User.class))),
+                content = @Content(schema = @Schema(implementation = UserProfile.class))),
+            @ApiResponse(responseCode = "304", description = "El usuario no cambió desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content)
         }
     )
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        User user = userService.findById(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserProfile> getUserById(@PathVariable Long id) {
+        VersionedUserProfile user = userService.findVersionedById(id);
+        // Spring compara If-None-Match con este ETag y, si coincide, responde 304 sin escribir el cuerpo.
+        return ResponseEntity.ok()
+            .eTag(etag(user.version()))
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(user.profile());
     }
 
     /**
      * Actualiza la información de un usuario.
+     * Un usuario que no es administrador solo puede actualizar su propia cuenta y debe conservar su rol.
+     * El cuerpo se valida igual que en el registro (RUT con dígito verificador, rol permitido).
+     * @param ifMatch ETag de la versión que el cliente modificó (opcional).
      * @param user Usuario con los datos actualizados.
-     * @return Usuario actualizado o error si no existe.
+     * @param authentication Usuario autenticado.
+     * @return Usuario actualizado con su nuevo ETag, o error si no existe o la versión cambió.
      */
     @Operation(
         summary = "Actualizar usuario",
-        description = "Actualiza los datos de un usuario existente.",
+        description = "Actualiza los datos de un usuario existente. Con If-Match solo se aplica si el usuario sigue en esa versión.",
         requestBody = @RequestBody(
             required = true,
             description = "Datos actualizados del usuario",
@@ -78,35 +213,132 @@ public class UserController {
         responses = {
             @ApiResponse(responseCode = "200", description = "Usuario actualizado",
                 content = @Content(schema = @Schema(implementation = User.class))),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Cuenta ajena o cambio de rol sin ser administrador", content = @Content),
+            @ApiResponse(responseCode = "412", description = "El usuario cambió desde el ETag enviado", content = @Content)
         }
     )
     @PutMapping
-    public ResponseEntity<?> updateUser(@RequestBody User user) {
+    public ResponseEntity<?> updateUser(@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @org.springframework.web.bind.annotation.RequestBody @Valid User user, // RequestBody de Spring
+                                        Authentication authentication) {
+        requireOwnerOrAdmin(authentication, user.getId());
+        if (!isAdmin(authentication)) {
+            String currentRole = userService.findById(user.getId()).role();
+            if (user.getRole() != null && !user.getRole().equals(currentRole)) {
+                throw new AccessDeniedException(ROLE_CHANGE_DENIED);
+            }
+            user.setRole(currentRole);
+        }
         try {
-            User updatedUser = userService.update(user);
-            return ResponseEntity.ok(updatedUser);
+            User updatedUser = userService.update(user, expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(etag(updatedUser.getVersion())).body(updatedUser);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Actualiza parcialmente un usuario: solo se modifican los campos enviados.
+     * @param id Identificador del usuario.
+     * @param ifMatch ETag de la versión que el cliente modificó (opcional).
+     * @param patch Campos a modificar.
+     * @param authentication Usuario autenticado.
+     * @return Respuesta vacía si se actualiza correctamente.
+     */
+    @Operation(
+        summary = "Actualizar parcialmente un usuario",
+        description = "Modifica solo los campos enviados con un único UPDATE. La contraseña solo se re-encripta si se envía una nueva. Con If-Match solo se aplica si el usuario sigue en esa versión.",
+        requestBody = @RequestBody(
+            required = true,
+            description = "Campos a modificar",
+            content = @Content(schema = @Schema(implementation = UserPatch.class))
+        ),
+        responses = {
+            @ApiResponse(responseCode = "204", description = "Usuario actualizado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Cuenta ajena o cambio de rol sin ser administrador", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content),
+            @ApiResponse(responseCode = "412", description = "El usuario cambió desde el ETag enviado", content = @Content)
+        }
+    )
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchUser(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @org.springframework.web.bind.annotation.RequestBody @Valid UserPatch patch,
+                                          Authentication authentication) {
+        requireOwnerOrAdmin(authentication, id);
+        if (patch.role() != null && !isAdmin(authentication)) {
+            throw new AccessDeniedException(ROLE_CHANGE_DENIED);
+        }
+        userService.patch(id, patch, expectedVersion(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Elimina un usuario por su ID.
      * @param id Identificador del usuario a eliminar.
+     * @param authentication Usuario autenticado.
      * @return Respuesta vacía si se elimina correctamente.
      */
     @Operation(
         summary = "Eliminar usuario",
-        description = "Elimina un usuario según su identificador.",
+        description = "Elimina un usuario según su identificador. Solo el propio usuario o un administrador.",
         responses = {
             @ApiResponse(responseCode = "204", description = "Usuario eliminado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Cuenta ajena sin ser administrador", content = @Content),
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content)
         }
     )
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id, Authentication authentication) {
+        requireOwnerOrAdmin(authentication, id);
         userService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Rechaza la operación si el token no es de administrador ni del usuario indicado.
+     * El subject de los tokens emitidos por /auth/login es el id del usuario.
+     */
+    private static void requireOwnerOrAdmin(Authentication authentication, long id) {
+        if (!isAdmin(authentication) && !String.valueOf(id).equals(authentication.getName())) {
+            throw new AccessDeniedException("Solo puede modificar su propia cuenta");
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream().anyMatch(a -> ADMIN_AUTHORITY.equals(a.getAuthority()));
+    }
+
+    /**
+     * ETag fuerte de un usuario: la versión de su fila.
+     */
+    private static String etag(long version) {
+        return ETag.quoteETagIfNecessary(Long.toString(version));
+    }
+
+    /**
+     * Interpreta If-Match como la versión esperada del usuario.
+     * Devuelve null si no se envió o es "*". Se usa la primera etiqueta fuerte; las débiles o ajenas
+     * nunca coinciden (If-Match exige comparación fuerte), así que se traducen a una versión imposible.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (!tag.weak()) {
+                try {
+                    return Long.parseLong(tag.tag());
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        return -1L;
+    }
+}
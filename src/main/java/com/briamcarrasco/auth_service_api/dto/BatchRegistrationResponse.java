@@ -0,0 +1,24 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta del registro masivo de usuarios.
+ *
+ * @param created Cantidad de usuarios registrados.
+ * @param failed  Cantidad de usuarios rechazados.
+ * @param results Resultado individual de cada usuario, en el orden recibido.
+ */
+public record BatchRegistrationResponse(int created, int failed, List<BatchRegistrationResult> results) {
+
+    /**
+     * Construye la respuesta contando los resultados exitosos y fallidos.
+     *
+     * @param results Resultados individuales.
+     * @return Respuesta con totales.
+     */
+    public static BatchRegistrationResponse of(List<BatchRegistrationResult> results) {
+        int created = (int) results.stream().filter(BatchRegistrationResult::created).count();
+        return new BatchRegistrationResponse(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,20 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Resultado del registro de un usuario dentro de un lote.
+ *
+ * @param index   Posición del usuario en el lote recibido (desde 0).
+ * @param created true si el usuario fue registrado.
+ * @param id      Id asignado, o null si falló.
+ * @param error   Motivo del fallo, o null si se registró.
+ */
+public record BatchRegistrationResult(int index, boolean created, Long id, String error) {
+
+    public static BatchRegistrationResult created(int index, long id) {
+        return new BatchRegistrationResult(index, true, id, null);
+    }
+
+    public static BatchRegistrationResult failed(int index, String error) {
+        return new BatchRegistrationResult(index, false, null, error);
+    }
+}
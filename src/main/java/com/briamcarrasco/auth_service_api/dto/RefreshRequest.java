@@ -0,0 +1,9 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Petición de renovación del token de acceso.
+ *
+ * @param refreshToken Refresh token emitido en el login o en la renovación anterior.
+ */
+public record RefreshRequest(String refreshToken) {
+}
@@ -0,0 +1,9 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Petición de revocación de un token de acceso o de un refresh token.
+ *
+ * @param token Token JWT o refresh token a revocar.
+ */
+public record RevokeRequest(String token) {
+}
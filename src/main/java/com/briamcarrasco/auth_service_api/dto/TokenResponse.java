@@ -0,0 +1,15 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Respuesta del login y de la renovación con el token de acceso emitido.
+ *
+ * @param accessToken      Token JWT firmado.
+ * @param tokenType        Tipo de token (siempre "Bearer").
+ * @param expiresIn        Segundos de validez del token.
+ * @param refreshToken     Refresh token opaco para obtener un nuevo token de acceso (de un solo uso).
+ * @param refreshExpiresIn Segundos de validez del refresh token si no se usa.
+ * @param user             Usuario autenticado.
+ */
+public record TokenResponse(String accessToken, String tokenType, long expiresIn,
+                            String refreshToken, long refreshExpiresIn, UserProfile user) {
+}
@@ -0,0 +1,35 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Datos necesarios para autenticar a un usuario: su vista pública y el hash de la contraseña.
+ * Solo se usa dentro del servicio; nunca se serializa hacia el cliente.
+ *
+ * @param id             Identificador del usuario.
+ * @param name           Nombre.
+ * @param firstLastname  Primer apellido.
+ * @param secondLastname Segundo apellido.
+ * @param email          Correo electrónico.
+ * @param username       Nombre de usuario.
+ * @param role           Rol ("users" o "admin").
+ * @param rut            RUT chileno.
+ * @param passwordHash   Hash de la contraseña.
+ * @param version        Versión de la fila, usada como ETag.
+ */
+public record UserCredentials(long id, String name, String firstLastname, String secondLastname,
+                              String email, String username, String role, String rut, String passwordHash,
+                              long version) {
+
+    /**
+     * @return Vista pública del usuario, sin el hash de la contraseña.
+     */
+    public UserProfile toProfile() {
+        return new UserProfile(id, name, firstLastname, secondLastname, email, username, role, rut);
+    }
+
+    /**
+     * @return Vista pública del usuario con la versión de la fila.
+     */
+    public VersionedUserProfile toVersionedProfile() {
+        return new VersionedUserProfile(toProfile(), version);
+    }
+}
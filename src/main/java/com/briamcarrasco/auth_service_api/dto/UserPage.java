@@ -0,0 +1,12 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+import java.util.List;
+
+/**
+ * Página de usuarios obtenida por paginación keyset sobre id_user.
+ *
+ * @param items      Usuarios de la página, ordenados por id ascendente.
+ * @param nextCursor Cursor para pedir la página siguiente (parámetro "after"), o null si no hay más.
+ */
+public record UserPage(List<UserProfile> items, Long nextCursor) {
+}
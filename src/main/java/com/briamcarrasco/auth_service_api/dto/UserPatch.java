@@ -0,0 +1,45 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+import com.briamcarrasco.auth_service_api.validation.ValidRut;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Cambios parciales sobre un usuario. Los campos nulos no se modifican;
+ * una contraseña vacía también se considera no enviada.
+ *
+ * @param name           Nombre.
+ * @param firstLastname  Primer apellido.
+ * @param secondLastname Segundo apellido.
+ * @param email          Correo electrónico.
+ * @param username       Nombre de usuario.
+ * @param password       Nueva contraseña en texto plano.
+ * @param role           Rol ("users" o "admin").
+ * @param rut            RUT chileno (con o sin puntos y guion).
+ */
+public record UserPatch(
+    String name,
+    String firstLastname,
+    String secondLastname,
+    String email,
+    String username,
+    String password,
+    @Pattern(regexp = "^(users|admin)$", message = "El rol solo puede ser 'users' o 'admin'")
+    String role,
+    @ValidRut
+    String rut) {
+
+    /**
+     * @return true si se envió una nueva contraseña.
+     */
+    public boolean hasPassword() {
+        return password != null && !password.isBlank();
+    }
+
+    /**
+     * @return true si no se envió ningún campo a modificar.
+     */
+    public boolean isEmpty() {
+        return name == null && firstLastname == null && secondLastname == null && email == null
+            && username == null && !hasPassword() && role == null && rut == null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+
+/**
+ * Vista pública de un usuario (sin contraseña).
+ * Se obtiene directamente con una proyección JPQL, sin cargar entidades administradas.
+ *
+ * @param id             Identificador del usuario.
+ * @param name           Nombre.
+ * @param firstLastname  Primer apellido.
+ * @param secondLastname Segundo apellido.
+ * @param email          Correo electrónico.
+ * @param username       Nombre de usuario.
+ * @param role           Rol ("users" o "admin").
+ * @param rut            RUT chileno.
+ */
+public record UserProfile(long id, String name, String firstLastname, String secondLastname,
+                          String email, String username, String role, String rut) {
+
+    /**
+     * Construye la vista pública a partir de la entidad.
+     *
+     * @param user Entidad de usuario.
+     * @return Vista pública del usuario.
+     */
+    public static UserProfile from(User user) {
+        return new UserProfile(user.getId(), user.getName(), user.getFirstLastname(), user.getSecondLastname(),
+            user.getEmail(), user.getUsername(), user.getRole(), user.getRut());
+    }
+
+    /**
+     * Aplica una actualización parcial a esta vista.
+     *
+     * @param patch Campos modificados (los nulos se conservan).
+     * @return Nueva vista con los cambios aplicados.
+     */
+    public UserProfile apply(UserPatch patch) {
+        return new UserProfile(id,
+            patch.name() != null ? patch.name() : name,
+            patch.firstLastname() != null ? patch.firstLastname() : firstLastname,
+            patch.secondLastname() != null ? patch.secondLastname() : secondLastname,
+            patch.email() != null ? patch.email() : email,
+            patch.username() != null ? patch.username() : username,
+            patch.role() != null ? patch.role() : role,
+            patch.rut() != null ? Rut.normalize(patch.rut()) : rut);
+    }
+}
@@ -0,0 +1,11 @@
+package com.briamcarrasco.auth_service_api.dto;
+
+/**
+ * Vista pública de un usuario junto con la versión de su fila, leídas juntas para que el
+ * ETag corresponda siempre al cuerpo de la respuesta.
+ *
+ * @param profile Vista pública del usuario.
+ * @param version Versión de la fila (columna {@code version}).
+ */
+public record VersionedUserProfile(UserProfile profile, long version) {
+}
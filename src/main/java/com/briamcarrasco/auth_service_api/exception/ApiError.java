@@ -0,0 +1,34 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Cuerpo de las respuestas de error de la API.
+ * Reemplaza los mapas construidos en cada error: un registro inmutable con campos fijos,
+ * que Jackson serializa sin asignar estructuras intermedias. Los campos nulos se omiten.
+ *
+ * @param status    Código HTTP.
+ * @param timestamp Momento del error.
+ * @param error     Descripción del error.
+ * @param message   Detalle adicional (opcional).
+ * @param path      Ruta de la petición (opcional).
+ * @param errores   Errores de validación por campo (opcional).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiError(int status, LocalDateTime timestamp, String error, String message, String path,
+                       Map<String, String> errores) {
+
+    /**
+     * Crea un error simple.
+     *
+     * @param status Código HTTP.
+     * @param error  Descripción del error.
+     * @param path   Ruta de la petición.
+     * @return Cuerpo del error.
+     */
+    public static ApiError of(int status, String error, String path) {
+        return new ApiError(status, LocalDateTime.now(), error, null, path, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Respuestas de error precalculadas para los casos más frecuentes.
+ * {@link ResponseEntity} es inmutable, por lo que una misma instancia puede devolverse en
+ * todas las peticiones sin asignar memoria.
+ */
+public final class ErrorResponses {
+
+    /** Respuesta 401 del login con credenciales incorrectas. */
+    public static final ResponseEntity<String> INVALID_CREDENTIALS =
+        ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
+
+    /** Respuesta 401 de la renovación con un refresh token inválido, ya usado o expirado. */
+    public static final ResponseEntity<String> INVALID_REFRESH_TOKEN =
+        ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token inválido o expirado");
+
+    private ErrorResponses() {
+    }
+}
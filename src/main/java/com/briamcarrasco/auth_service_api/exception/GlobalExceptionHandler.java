@@ -1,20 +1,25 @@
 package com.briamcarrasco.auth_service_api.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.context.request.WebRequest;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Manejador global de excepciones para la API.
  * Captura y personaliza las respuestas de error para diferentes tipos de excepciones.
+ * Los cuerpos son {@link ApiError} y la ruta se toma directamente de la URI de la petición.
  */
 @Slf4j
 @ControllerAdvice
@@ -27,17 +32,13 @@ public class GlobalExceptionHandler {
      * @return Respuesta con detalles de los errores de validación.
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
+    public ResponseEntity<ApiError> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errores = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error -> {
             errores.put(error.getField(), error.getDefaultMessage());
         });
 
-        Map<String, Object> respuesta = new HashMap<>();
-        respuesta.put("status", HttpStatus.BAD_REQUEST.value());
-        respuesta.put("timestamp", LocalDateTime.now());
-        respuesta.put("errores", errores);
-
+        ApiError respuesta = new ApiError(HttpStatus.BAD_REQUEST.value(), LocalDateTime.now(), null, null, null, errores);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(respuesta);
     }
 
@@ -49,13 +50,8 @@ public class GlobalExceptionHandler {
      * @return Respuesta con mensaje de recurso no encontrado.
      */
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleResourceNotFound(ResourceNotFoundException ex, WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("status", HttpStatus.NOT_FOUND.value());
-        error.put("timestamp", LocalDateTime.now());
-        error.put("error", ex.getMessage());
-        error.put("path", request.getDescription(false).replace("uri=", ""));
-
+    public ResponseEntity<ApiError> handleResourceNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.NOT_FOUND.value(), ex.getMessage(), request.getRequestURI());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
@@ -67,12 +63,8 @@ public class GlobalExceptionHandler {
      * @return Respuesta con mensaje de ruta no encontrada.
      */
     @ExceptionHandler(ErrorResponseException.class)
-    public ResponseEntity<Map<String, Object>> handleErrorResponseException(ErrorResponseException ex, WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("status", ex.getStatusCode().value());
-        error.put("timestamp", LocalDateTime.now());
-        error.put("error", "La URL solicitada no existe o no está disponible.");
-        error.put("path", request.getDescription(false).replace("uri=", ""));
+    public ResponseEntity<ApiError> handleErrorResponseException(ErrorResponseException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(ex.getStatusCode().value(), "La URL solicitada no existe o no está disponible.", request.getRequestURI());
         return ResponseEntity.status(ex.getStatusCode()).body(error);
     }
 
@@ -84,15 +76,98 @@ public class GlobalExceptionHandler {
      * @return Respuesta con mensaje de argumento inválido.
      */
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("status", HttpStatus.BAD_REQUEST.value());
-        error.put("timestamp", LocalDateTime.now());
-        error.put("error", ex.getMessage());
-        error.put("path", request.getDescription(false).replace("uri=", ""));
+    public ResponseEntity<ApiError> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.BAD_REQUEST.value(), ex.getMessage(), request.getRequestURI());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Maneja operaciones que el usuario autenticado no puede realizar (por ejemplo, modificar una cuenta ajena).
+     *
+     * @param ex      Excepción de acceso denegado.
+     * @param request Información de la petición.
+     * @return Respuesta 403 con el mensaje de la excepción.
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.FORBIDDEN.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+
+    /**
+     * Maneja violaciones de integridad de datos (por ejemplo, email o nombre de usuario duplicados).
+     *
+     * @param ex      Excepción de integridad de datos.
+     * @param request Información de la petición.
+     * @return Respuesta 400 con el mensaje de la restricción violada, o 409 si no se reconoce.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(DataIntegrityViolationException ex, HttpServletRequest request) {
+        String message = UniqueConstraints.describe(ex).orElse(null);
+        HttpStatus status = message != null ? HttpStatus.BAD_REQUEST : HttpStatus.CONFLICT;
+        ApiError error = ApiError.of(status.value(),
+            message != null ? message : "Los datos entran en conflicto con un registro existente", request.getRequestURI());
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Maneja una actualización condicional cuya versión (If-Match) ya no es la actual.
+     *
+     * @param ex      Excepción de precondición fallida.
+     * @param request Información de la petición.
+     * @return Respuesta 412 con el mensaje de la excepción.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.PRECONDITION_FAILED.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    /**
+     * Maneja el UPDATE rechazado por el control de versiones de JPA: otra petición modificó
+     * el usuario entre la lectura y la escritura.
+     *
+     * @param ex      Excepción de bloqueo optimista.
+     * @param request Información de la petición.
+     * @return Respuesta 412 (el mensaje de Hibernate no se expone).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.PRECONDITION_FAILED.value(),
+            "El recurso fue modificado por otra petición. Vuelva a consultarlo antes de actualizarlo.", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    /**
+     * Maneja el exceso de intentos de login.
+     *
+     * @param ex      Excepción de límite de intentos.
+     * @param request Información de la petición.
+     * @return Respuesta 429 con el encabezado Retry-After.
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiError> handleLoginThrottled(LoginThrottledException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
+    /**
+     * Maneja la saturación del pool de hashing de contraseñas.
+     *
+     * @param ex      Excepción de capacidad excedida.
+     * @param request Información de la petición.
+     * @return Respuesta 503 con el encabezado Retry-After.
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ApiError> handleHashingCapacityExceeded(HashingCapacityExceededException ex, HttpServletRequest request) {
+        ApiError error = ApiError.of(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+
     /**
      * Maneja cualquier otra excepción no controlada.
      *
@@ -101,21 +176,17 @@ public class GlobalExceptionHandler {
      * @return Respuesta con mensaje de error interno del servidor.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex, WebRequest request) {
+    public ResponseEntity<ApiError> handleGeneralException(Exception ex, HttpServletRequest request) {
         // Evitar interceptar peticiones a Swagger
-        String path = request.getDescription(false).replace("uri=", "");
+        String path = request.getRequestURI();
         if (path.startsWith("/v3/api-docs") || path.startsWith("/swagger-ui")) {
             throw new RuntimeException(ex); // deja que Spring maneje el error
         }
 
         log.error("Error interno del servidor: ", ex);
 
-        Map<String, Object> error = new HashMap<>();
-        error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        error.put("timestamp", LocalDateTime.now());
-        error.put("error", "Error interno del servidor");
-        error.put("message", "Ha ocurrido un problema inesperado. Por favor, intente más tarde.");
-        error.put("path", path);
+        ApiError error = new ApiError(HttpStatus.INTERNAL_SERVER_ERROR.value(), LocalDateTime.now(),
+            "Error interno del servidor", "Ha ocurrido un problema inesperado. Por favor, intente más tarde.", path, null);
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
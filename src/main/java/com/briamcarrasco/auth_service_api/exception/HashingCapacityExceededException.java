@@ -0,0 +1,28 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+/**
+ * Excepción que indica que el pool de hashing de contraseñas está saturado.
+ * Se traduce a una respuesta 503 con el encabezado Retry-After.
+ * No captura el stack trace: se lanza en cada rechazo mientras dura la saturación.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Crea una nueva instancia indicando cuántos segundos debe esperar el cliente.
+     *
+     * @param retryAfterSeconds Segundos sugeridos antes de reintentar.
+     */
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("El servicio está saturado, intente nuevamente en unos segundos", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return Segundos sugeridos antes de reintentar.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
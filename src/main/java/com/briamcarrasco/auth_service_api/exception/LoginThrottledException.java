@@ -0,0 +1,28 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+/**
+ * Excepción que indica que se superó el límite de intentos de login.
+ * Se traduce a una respuesta 429 con el encabezado Retry-After.
+ * No captura el stack trace: se lanza en cada intento rechazado durante un ataque.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Crea una nueva instancia indicando cuántos segundos debe esperar el cliente.
+     *
+     * @param retryAfterSeconds Segundos sugeridos antes de reintentar.
+     */
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Demasiados intentos de login, intente nuevamente más tarde", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return Segundos sugeridos antes de reintentar.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
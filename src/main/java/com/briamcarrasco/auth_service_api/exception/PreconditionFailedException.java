@@ -0,0 +1,17 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+/**
+ * Excepción para indicar que la versión enviada en If-Match ya no es la actual del recurso.
+ * Se traduce a 412 (Precondition Failed).
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Crea una nueva instancia sin stack trace: es un resultado esperado de una edición concurrente.
+     *
+     * @param message Mensaje descriptivo del error.
+     */
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
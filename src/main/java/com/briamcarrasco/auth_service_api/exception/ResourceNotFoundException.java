@@ -8,11 +8,13 @@ public class ResourceNotFoundException extends RuntimeException {
 
     /**
      * Crea una nueva instancia de ResourceNotFoundException con un mensaje personalizado.
+     * No captura el stack trace: es un resultado esperado (se traduce a 404) y capturarlo
+     * en cada búsqueda fallida es el costo principal de lanzar la excepción.
      *
      * @param message Mensaje descriptivo del error.
      */
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
     
 }
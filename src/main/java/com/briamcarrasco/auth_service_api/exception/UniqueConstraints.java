@@ -0,0 +1,51 @@
+package com.briamcarrasco.auth_service_api.exception;
+
+import java.util.Locale;
+import java.util.Optional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Traduce violaciones de las restricciones únicas de tb_users a mensajes amigables.
+ * Permite registrar con un único INSERT y detectar duplicados a partir del error de la base de datos.
+ */
+public final class UniqueConstraints {
+
+    /**
+     * Restricción única sobre tb_users.email.
+     */
+    public static final String USERS_EMAIL = "uk_users_email";
+
+    /**
+     * Restricción única sobre tb_users.username.
+     */
+    public static final String USERS_USERNAME = "uk_users_username";
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Obtiene el mensaje de negocio asociado a la restricción violada, si se reconoce.
+     *
+     * @param ex Excepción de integridad de datos.
+     * @return Mensaje amigable, o vacío si la restricción no es conocida.
+     */
+    public static Optional<String> describe(DataIntegrityViolationException ex) {
+        String constraint = null;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                constraint = violation.getConstraintName();
+                break;
+            }
+        }
+        String source = (constraint != null ? constraint : String.valueOf(ex.getMostSpecificCause().getMessage()))
+            .toLowerCase(Locale.ROOT);
+        if (source.contains(USERS_EMAIL)) {
+            return Optional.of("El email ya está registrado");
+        }
+        if (source.contains(USERS_USERNAME)) {
+            return Optional.of("El nombre de usuario ya está registrado");
+        }
+        return Optional.empty();
+    }
+}
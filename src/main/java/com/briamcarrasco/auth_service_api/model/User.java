@@ -1,30 +1,46 @@
 package com.briamcarrasco.auth_service_api.model;
 
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import com.briamcarrasco.auth_service_api.validation.ValidRut;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.persistence.UniqueConstraint;
+import com.briamcarrasco.auth_service_api.exception.UniqueConstraints;
 import lombok.Data;
 import jakarta.persistence.GenerationType;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
 
 /**
  * Entidad que representa a un usuario del sistema.
  * Incluye información personal, credenciales y rol de acceso.
  */
 @Entity
-@Table(name = "tb_users")
+@Table(name = "tb_users", uniqueConstraints = {
+    @UniqueConstraint(name = UniqueConstraints.USERS_EMAIL, columnNames = "email"),
+    @UniqueConstraint(name = UniqueConstraints.USERS_USERNAME, columnNames = "username")
+}, indexes = @Index(name = "ix_users_rut_number", columnList = "rut_number"))
 @Data
 public class User {
 
     /**
      * Identificador único del usuario.
+     * Se genera con una secuencia con asignación en bloques de 50, lo que permite a Hibernate
+     * agrupar los INSERT en lotes JDBC (no es posible con columnas IDENTITY).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "seq_users", allocationSize = 50)
     @Column(name = "id_user")
     private long id;
 
@@ -49,19 +65,21 @@ public class User {
     /**
      * Correo electrónico del usuario. Debe ser único.
      */
-    @Column(name = "email", unique = true)
+    @Column(name = "email")
     private String email;
 
     /**
      * Nombre de usuario. Debe ser único.
      */
-    @Column(name = "username", unique = true)
+    @Column(name = "username")
     private String username;
 
     /**
      * Contraseña del usuario.
      * Debe tener al menos 8 caracteres, una mayúscula, una minúscula, un número y un carácter especial.
+     * Solo se acepta en la entrada; el hash nunca se serializa en las respuestas.
      */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password")
     private String password;
 
@@ -76,24 +94,56 @@ public class User {
     private String role;
 
     /**
-     * RUT chileno del usuario.
-     * Debe tener el formato 12345678-5 y entre 9 y 12 caracteres.
+     * RUT chileno del usuario, con dígito verificador válido.
+     * Se acepta con o sin puntos y guion, y se guarda en la forma canónica 12345678-5.
      */
-    @Pattern(
-        regexp = "^\\d{7,8}-[\\dkK]$",
-        message = "El RUT debe tener el formato 12345678-5"
-    )
+    @ValidRut
     @NotNull
-    @Size(max = 12, min=9, message = "El RUT debe tener entre 9 y 12 caracteres")
     @Column(name = "rut")
     private String rut;
 
+    /**
+     * Parte numérica del RUT, indexada para las búsquedas por RUT.
+     * Se calcula a partir de {@link #rut} al guardar.
+     */
+    @JsonIgnore
+    @Column(name = "rut_number")
+    private Long rutNumber;
+
+    /**
+     * Versión de la fila para el control de concurrencia optimista.
+     * Hibernate la incrementa en cada UPDATE de la entidad y lo condiciona a la versión leída;
+     * los clientes la reciben como ETag y la devuelven en If-Match.
+     */
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private long version;
+
     /**
      * Constructor vacío.
      */
     public User() {
     }
 
+    /**
+     * Normaliza el RUT y calcula su parte numérica antes de insertar o actualizar.
+     * Un RUT inválido que llegue sin pasar por la validación se rechaza en vez de guardarse
+     * sin su parte numérica (no aparecería en las búsquedas por RUT).
+     *
+     * @throws IllegalArgumentException si el RUT no es válido.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizeRut() {
+        long number = Rut.parse(rut);
+        if (number < 0) {
+            throw new IllegalArgumentException("RUT inválido");
+        }
+        rut = Rut.format(number);
+        rutNumber = number;
+    }
+
     // Getters y setters generados automáticamente por Lombok (@Data)
    
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.briamcarrasco.auth_service_api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Evento del outbox de cambios de usuarios.
+ * Se inserta en la misma transacción que el cambio, y cada nodo lo lee para invalidar
+ * sus cachés en memoria.
+ */
+@Entity
+@Table(name = "tb_user_changes", indexes = @Index(name = "ix_user_changes_created", columnList = "created_at"))
+@Data
+public class UserChangeEvent {
+
+    /**
+     * Tipo de cambio.
+     */
+    public enum Type {
+        REGISTER, UPDATE, DELETE
+    }
+
+    /**
+     * Identificador del evento.
+     * La secuencia asigna de a uno (sin bloques por nodo), de modo que los ids siguen el orden
+     * de inserción y los huecos solo provienen de transacciones en curso o revertidas. En Oracle
+     * esto requiere crear la secuencia con {@code NOCACHE ORDER} (ver "Create tables.sql").
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_changes_seq")
+    @SequenceGenerator(name = "user_changes_seq", sequenceName = "seq_user_changes", allocationSize = 1)
+    @Column(name = "id_change")
+    private long id;
+
+    /**
+     * Usuario modificado.
+     */
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    /**
+     * Tipo de cambio.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 10)
+    private Type type;
+
+    /**
+     * Nodo que hizo el cambio (ya lo aplicó localmente).
+     */
+    @Column(name = "origin_node", nullable = false, length = 36)
+    private String origin;
+
+    /**
+     * Instante de la inserción.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Constructor vacío.
+     */
+    public UserChangeEvent() {
+    }
+
+    public UserChangeEvent(long userId, Type type, String origin) {
+        this.userId = userId;
+        this.type = type;
+        this.origin = origin;
+        this.createdAt = Instant.now();
+    }
+}
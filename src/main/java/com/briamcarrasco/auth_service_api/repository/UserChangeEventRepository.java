@@ -0,0 +1,54 @@
+package com.briamcarrasco.auth_service_api.repository;
+
+import com.briamcarrasco.auth_service_api.model.UserChangeEvent;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositorio del outbox de cambios de usuarios.
+ */
+public interface UserChangeEventRepository extends JpaRepository<UserChangeEvent, Long> {
+
+    /**
+     * Obtiene los eventos siguientes al cursor, en orden de id.
+     *
+     * @param id    Último id procesado.
+     * @param limit Cantidad máxima de eventos.
+     * @return Eventos con id mayor al cursor.
+     */
+    @Query("select e from UserChangeEvent e where e.id > :id order by e.id")
+    List<UserChangeEvent> findAfter(@Param("id") long id, Limit limit);
+
+    /**
+     * Busca eventos por id (huecos pendientes del cursor).
+     *
+     * @param ids Ids buscados.
+     * @return Eventos encontrados.
+     */
+    List<UserChangeEvent> findByIdIn(Collection<Long> ids);
+
+    /**
+     * @param before Instante límite.
+     * @return El mayor id de los eventos insertados antes del instante, o 0 si no hay.
+     */
+    @Query("select coalesce(max(e.id), 0) from UserChangeEvent e where e.createdAt < :before")
+    long findMaxIdBefore(@Param("before") Instant before);
+
+    /**
+     * Elimina los eventos insertados antes del instante indicado.
+     *
+     * @param before Instante límite.
+     * @return Cantidad de eventos eliminados.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from UserChangeEvent e where e.createdAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
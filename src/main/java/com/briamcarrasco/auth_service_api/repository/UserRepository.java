@@ -1,14 +1,23 @@
 package com.briamcarrasco.auth_service_api.repository;
 
+import com.briamcarrasco.auth_service_api.dto.UserCredentials;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
 import com.briamcarrasco.auth_service_api.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repositorio para la entidad User.
  * Permite operaciones CRUD y consultas personalizadas sobre los usuarios.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
      * Verifica si existe un usuario con el email especificado.
@@ -42,4 +51,90 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Obtiene la vista pública de todos los usuarios, ordenados por id.
+     *
+     * @return Lista de vistas públicas.
+     */
+    @Query("select new " + PROFILE + " from User u order by u.id")
+    List<UserProfile> findAllProfiles();
+
+    /**
+     * Obtiene la siguiente página de usuarios con id mayor al cursor (paginación keyset).
+     *
+     * @param id    Cursor: último id de la página anterior.
+     * @param limit Cantidad máxima de usuarios.
+     * @return Vistas públicas ordenadas por id ascendente.
+     */
+    @Query("select new " + PROFILE + " from User u where u.id > :id order by u.id")
+    List<UserProfile> findProfilePage(@Param("id") long id, Limit limit);
+
+    /**
+     * Obtiene la vista pública de los usuarios indicados (los que no existen se omiten).
+     *
+     * @param ids Identificadores de los usuarios.
+     * @return Vistas públicas de los usuarios encontrados.
+     */
+    @Query("select new " + PROFILE + " from User u where u.id in :ids")
+    List<UserProfile> findProfilesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca los datos de autenticación de un usuario por su nombre de usuario.
+     * Las consultas declaradas no heredan la transacción de solo lectura de SimpleJpaRepository;
+     * sin ella el enrutamiento enviaría el login al primario en vez de a la réplica.
+     *
+     * @param username Nombre de usuario.
+     * @return Un Optional con las credenciales si existe, o vacío si no.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new " + CREDENTIALS + " from User u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Busca los datos de autenticación de un usuario por su ID (GET /users/{id}), en una
+     * transacción de solo lectura para que vaya a la réplica.
+     *
+     * @param id Identificador del usuario.
+     * @return Un Optional con las credenciales si existe, o vacío si no.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new " + CREDENTIALS + " from User u where u.id = :id")
+    Optional<UserCredentials> findCredentialsById(@Param("id") Long id);
+
+    /**
+     * Reemplaza el hash de la contraseña solo si no cambió desde que se leyó, para que una
+     * actualización de costo no pise un cambio de contraseña concurrente. No incrementa la versión:
+     * el hash no forma parte de la vista pública, así que el ETag de los clientes sigue siendo válido.
+     *
+     * @param id      Identificador del usuario.
+     * @param oldHash Hash leído.
+     * @param newHash Hash nuevo.
+     * @return 1 si se reemplazó, 0 si el usuario ya no existe o su hash cambió.
+     */
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int replacePasswordHash(@Param("id") long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    /**
+     * Busca usuarios por la parte numérica de su RUT (columna indexada).
+     *
+     * @param rutNumber Parte numérica del RUT.
+     * @param limit     Cantidad máxima de usuarios.
+     * @return Vistas públicas ordenadas por id ascendente.
+     */
+    @Query("select new " + PROFILE + " from User u where u.rutNumber = :rutNumber order by u.id")
+    List<UserProfile> findProfilesByRutNumber(@Param("rutNumber") long rutNumber, Limit limit);
+
+    /**
+     * Expresión JPQL que construye un {@link UserProfile}.
+     */
+    String PROFILE = "com.briamcarrasco.auth_service_api.dto.UserProfile("
+        + "u.id, u.name, u.firstLastname, u.secondLastname, u.email, u.username, u.role, u.rut)";
+
+    /**
+     * Expresión JPQL que construye un {@link UserCredentials}.
+     */
+    String CREDENTIALS = "com.briamcarrasco.auth_service_api.dto.UserCredentials("
+        + "u.id, u.name, u.firstLastname, u.secondLastname, u.email, u.username, u.role, u.rut, u.password, u.version)";
+
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.briamcarrasco.auth_service_api.repository;
+
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+
+/**
+ * Operaciones de {@link UserRepository} implementadas manualmente.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Aplica una actualización parcial con un único UPDATE que modifica solo los campos enviados
+     * e incrementa la versión de la fila.
+     *
+     * @param id              Identificador del usuario.
+     * @param patch           Campos a modificar (los nulos se ignoran).
+     * @param passwordHash    Hash de la nueva contraseña, o null para conservar la actual.
+     * @param expectedVersion Versión que debe tener la fila, o null para no comprobarla.
+     * @return Cantidad de filas actualizadas (0 si el usuario no existe o su versión cambió).
+     */
+    int patch(long id, UserPatch patch, String passwordHash, Long expectedVersion);
+}
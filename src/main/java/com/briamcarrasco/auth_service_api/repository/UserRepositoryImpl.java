@@ -0,0 +1,59 @@
+package com.briamcarrasco.auth_service_api.repository;
+
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementación de las operaciones manuales de {@link UserRepository}.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Construye un UPDATE dinámico con solo los campos enviados, sin cargar la entidad
+     * ni reescribir las columnas que no cambian.
+     * Un UPDATE directo no incrementa la versión por sí solo, así que se incrementa aquí.
+     */
+    @Override
+    @Transactional
+    public int patch(long id, UserPatch patch, String passwordHash, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> user = update.from(User.class);
+        setIfPresent(update, user, "name", patch.name());
+        setIfPresent(update, user, "firstLastname", patch.firstLastname());
+        setIfPresent(update, user, "secondLastname", patch.secondLastname());
+        setIfPresent(update, user, "email", patch.email());
+        setIfPresent(update, user, "username", patch.username());
+        setIfPresent(update, user, "password", passwordHash);
+        setIfPresent(update, user, "role", patch.role());
+        if (patch.rut() != null) {
+            // El UPDATE directo no pasa por @PreUpdate: se normaliza aquí.
+            long rutNumber = Rut.parse(patch.rut());
+            update.set(user.<String>get("rut"), Rut.format(rutNumber));
+            update.set(user.<Long>get("rutNumber"), rutNumber);
+        }
+        Path<Long> version = user.get("version");
+        update.set(version, cb.sum(version, 1L));
+        update.where(expectedVersion == null
+            ? cb.equal(user.get("id"), id)
+            : cb.and(cb.equal(user.get("id"), id), cb.equal(version, expectedVersion)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static void setIfPresent(CriteriaUpdate<User> update, Root<User> user, String attribute, String value) {
+        if (value != null) {
+            update.set(user.<String>get(attribute), value);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import com.briamcarrasco.auth_service_api.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Codificador de contraseñas que ejecuta el hashing en un pool dedicado y acotado.
+ * Evita que BCrypt ocupe todos los hilos de Tomcat: cuando la cola está llena,
+ * rechaza de inmediato con {@link HashingCapacityExceededException} en lugar de encolar sin límite.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final long REJECTED_RETRY_MILLIS = 5;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    /**
+     * Crea el codificador acotado.
+     *
+     * @param delegate          Codificador real (por ejemplo, BCrypt).
+     * @param threads           Cantidad de hilos de hashing.
+     * @param queueCapacity     Tareas que pueden esperar en cola antes de rechazar.
+     * @param retryAfterSeconds Segundos sugeridos al cliente cuando se rechaza.
+     * @param meterRegistry     Registro de métricas.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Tareas de hashing esperando en cola")
+            .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hilos de hashing ocupados")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.hashing.wait")
+            .description("Tiempo de espera en cola antes de comenzar el hashing")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.hashing.duration")
+            .description("Tiempo de CPU del hashing, sin la espera en cola")
+            .tag("operation", "encode")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.hashing.duration")
+            .description("Tiempo de CPU del hashing, sin la espera en cola")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejections = Counter.builder("auth.hashing.rejected")
+            .description("Tareas de hashing rechazadas por cola llena")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Codifica varias contraseñas en paralelo usando todos los hilos del pool.
+     * Mantiene a lo sumo un lote de tareas en vuelo igual al tamaño del pool para no acaparar la cola.
+     * Si la cola está llena por otras peticiones, espera a que termine una tarea propia (o, sin tareas
+     * propias en curso, reintenta hasta retryAfterSeconds). El hashing nunca pasa al hilo llamador,
+     * así que el pool sigue siendo el único límite.
+     *
+     * @param rawPasswords Contraseñas en texto plano.
+     * @return Hashes en el mismo orden recibido.
+     * @throws HashingCapacityExceededException si la cola sigue llena tras esperar retryAfterSeconds.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        String[] encoded = new String[rawPasswords.size()];
+        Semaphore window = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<?>> futures = new ArrayList<>(rawPasswords.size());
+        int oldestPending = 0;
+        try {
+            for (int i = 0; i < encoded.length; i++) {
+                int index = i;
+                CharSequence raw = rawPasswords.get(i);
+                window.acquire();
+                Runnable task = () -> {
+                    try {
+                        encoded[index] = timedEncode(raw);
+                    } finally {
+                        window.release();
+                    }
+                };
+                long blockedSince = -1;
+                while (true) {
+                    try {
+                        futures.add(executor.submit(task));
+                        break;
+                    } catch (RejectedExecutionException e) {
+                        while (oldestPending < futures.size() && futures.get(oldestPending).isDone()) {
+                            oldestPending++;
+                        }
+                        if (oldestPending < futures.size()) {
+                            futures.get(oldestPending).get();
+                            continue;
+                        }
+                        long now = System.nanoTime();
+                        if (blockedSince < 0) {
+                            blockedSince = now;
+                        } else if (now - blockedSince > TimeUnit.SECONDS.toNanos(retryAfterSeconds)) {
+                            window.release();
+                            rejections.increment();
+                            throw new HashingCapacityExceededException(retryAfterSeconds);
+                        }
+                        Thread.sleep(REJECTED_RETRY_MILLIS);
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (HashingCapacityExceededException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseñas interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al procesar las contraseñas", e.getCause());
+        }
+        return Arrays.asList(encoded);
+    }
+
+    private String timedEncode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Envía la tarea al pool y espera su resultado en el hilo llamador.
+     * Registra por separado la espera en cola y la duración del hashing.
+     */
+    private <T> T execute(Timer timer, Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                waitTimer.record(start - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new HashingCapacityExceededException(retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al procesar la contraseña", e.getCause());
+        }
+    }
+
+    /**
+     * Detiene el pool de hashing al cerrar el contexto.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
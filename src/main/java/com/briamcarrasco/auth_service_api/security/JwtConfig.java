@@ -0,0 +1,106 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
+import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import java.util.Base64;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtIssuerValidator;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Configuración de los tokens de acceso JWT.
+ * La clave HMAC se construye una sola vez y se comparte entre el emisor y el verificador,
+ * de modo que validar un token no requiere acceso a la base de datos.
+ */
+@Configuration
+@SecurityScheme(name = JwtConfig.SECURITY_SCHEME, type = SecuritySchemeType.HTTP, scheme = "bearer", bearerFormat = "JWT")
+public class JwtConfig {
+
+    /**
+     * Nombre del esquema de seguridad Bearer en la documentación OpenAPI.
+     */
+    public static final String SECURITY_SCHEME = "bearerAuth";
+
+    /**
+     * Clave secreta HMAC-SHA256 decodificada desde la configuración.
+     * No hay clave por defecto: sin {@code auth.jwt.secret} (variable AUTH_JWT_SECRET) la app no arranca.
+     *
+     * @param secret Secreto en Base64 (mínimo 256 bits).
+     * @return Clave secreta.
+     */
+    @Bean
+    public SecretKey jwtSecretKey(@Value("${auth.jwt.secret:}") String secret) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("auth.jwt.secret no está configurado: defina la variable de entorno AUTH_JWT_SECRET");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(secret.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("auth.jwt.secret debe estar en Base64", e);
+        }
+        if (bytes.length < 32) {
+            throw new IllegalStateException("auth.jwt.secret debe tener al menos 256 bits");
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    /**
+     * Codificador que firma los tokens emitidos en el login.
+     *
+     * @param key Clave secreta HMAC.
+     * @return Codificador JWT.
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey key) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(key));
+    }
+
+    /**
+     * Decodificador que verifica firma, expiración, emisor y revocación de los tokens recibidos.
+     *
+     * @param key             Clave secreta HMAC.
+     * @param issuer          Emisor esperado.
+     * @param revocationStore Almacén de tokens revocados.
+     * @return Decodificador JWT.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey key, @Value("${auth.jwt.issuer}") String issuer,
+                                 TokenRevocationStore revocationStore) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key)
+            .macAlgorithm(MacAlgorithm.HS256)
+            .build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+            new JwtTimestampValidator(), new JwtIssuerValidator(issuer),
+            new RevokedTokenValidator(revocationStore)));
+        return decoder;
+    }
+
+    /**
+     * Convierte el claim "role" del token en la autoridad ROLE_users o ROLE_admin.
+     *
+     * @return Conversor de autenticación JWT.
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(TokenService.ROLE_CLAIM);
+        authorities.setAuthorityPrefix("ROLE_");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+}
@@ -0,0 +1,152 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import com.briamcarrasco.auth_service_api.exception.LoginThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limita los intentos de login por nombre de usuario y por IP del cliente antes de
+ * consultar la base de datos o ejecutar BCrypt.
+ *
+ * <p>Cada clave tiene un token bucket representado con un único {@link AtomicLong}
+ * (algoritmo GCRA: se guarda el instante teórico en que el bucket vuelve a estar lleno),
+ * de modo que consumir un token es un CAS sin locks ni asignaciones. Los buckets viven en
+ * cachés Caffeine acotadas por tamaño y expiran tras un periodo sin uso, cuando ya
+ * estarían llenos de nuevo.</p>
+ *
+ * <p>La IP es la que entrega {@code request.getRemoteAddr()}; detrás de un balanceador
+ * solo es la del cliente real si {@code server.forward-headers-strategy} está configurado
+ * (ver {@code application.properties}).</p>
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final Cache<String, AtomicLong> byUsername;
+    private final Cache<String, AtomicLong> byIp;
+    private final Counter usernameThrottled;
+    private final Counter ipThrottled;
+    private final Ticker ticker;
+
+    @Autowired
+    public LoginThrottle(@Value("${auth.login.throttle.enabled:true}") boolean enabled,
+                         @Value("${auth.login.throttle.username.capacity:5}") int usernameCapacity,
+                         @Value("${auth.login.throttle.username.period:1m}") Duration usernamePeriod,
+                         @Value("${auth.login.throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${auth.login.throttle.ip.period:1m}") Duration ipPeriod,
+                         @Value("${auth.login.throttle.max-keys:100000}") long maxKeys,
+                         MeterRegistry meterRegistry) {
+        this(enabled, usernameCapacity, usernamePeriod, ipCapacity, ipPeriod, maxKeys, meterRegistry,
+            Ticker.systemTicker());
+    }
+
+    /** Permite fijar el reloj (en nanosegundos) de los buckets y de la expiración de las cachés. */
+    LoginThrottle(boolean enabled, int usernameCapacity, Duration usernamePeriod, int ipCapacity,
+                  Duration ipPeriod, long maxKeys, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        this.enabled = enabled;
+        this.usernameLimit = new Limit(usernameCapacity, usernamePeriod);
+        this.ipLimit = new Limit(ipCapacity, ipPeriod);
+        this.byUsername = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(usernamePeriod)
+            .ticker(ticker).build();
+        this.byIp = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(ipPeriod)
+            .ticker(ticker).build();
+        this.usernameThrottled = Counter.builder("auth.login.throttled")
+            .description("Intentos de login rechazados por exceso de intentos")
+            .tag("scope", "username")
+            .register(meterRegistry);
+        this.ipThrottled = Counter.builder("auth.login.throttled")
+            .description("Intentos de login rechazados por exceso de intentos")
+            .tag("scope", "ip")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Consume un intento para la IP y para el nombre de usuario.
+     *
+     * @param username Nombre de usuario del intento (puede ser null).
+     * @param clientIp IP del cliente.
+     * @throws LoginThrottledException si alguno de los dos superó su límite.
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = ticker.read();
+        if (clientIp != null) {
+            long wait = ipLimit.tryAcquire(byIp.get(clientIp, this::newBucket), now);
+            if (wait > 0) {
+                ipThrottled.increment();
+                throw new LoginThrottledException(toRetryAfterSeconds(wait));
+            }
+        }
+        if (username != null) {
+            long wait = usernameLimit.tryAcquire(byUsername.get(username, this::newBucket), now);
+            if (wait > 0) {
+                usernameThrottled.increment();
+                throw new LoginThrottledException(toRetryAfterSeconds(wait));
+            }
+        }
+    }
+
+    /** Un bucket nuevo está lleno: su instante de llenado es el actual. */
+    private AtomicLong newBucket(String key) {
+        return new AtomicLong(ticker.read());
+    }
+
+    /** Número de claves (usuarios + IPs) con bucket en memoria, tras aplicar expiraciones pendientes. */
+    long trackedKeys() {
+        byUsername.cleanUp();
+        byIp.cleanUp();
+        return byUsername.estimatedSize() + byIp.estimatedSize();
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Token bucket con capacidad {@code capacity} que recupera un token cada {@code period / capacity}.
+     */
+    private static final class Limit {
+
+        private final long interval;
+        private final long burst;
+
+        Limit(int capacity, Duration period) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("La capacidad del límite de login debe ser al menos 1");
+            }
+            this.interval = Math.max(1, period.toNanos() / capacity);
+            this.burst = interval * capacity;
+        }
+
+        /**
+         * @return 0 si se consumió un token, o los nanosegundos a esperar hasta el próximo.
+         */
+        long tryAcquire(AtomicLong bucket, long now) {
+            while (true) {
+                long fullAt = bucket.get();
+                long next = Math.max(fullAt, now) + interval;
+                long excess = next - now - burst;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (bucket.compareAndSet(fullAt, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tabla hash de refresh tokens almacenada fuera del heap.
+ *
+ * <p>Cada entrada ocupa 40 bytes en un {@link ByteBuffer} directo: la clave de 128 bits
+ * (hash del token), el id del usuario, la expiración por inactividad y la expiración absoluta
+ * de la sesión, todas en segundos epoch. No hay objetos por entrada, así que millones de tokens
+ * no agregan trabajo al GC. Se usa direccionamiento abierto con sondeo lineal y borrado por
+ * desplazamiento hacia atrás (sin lápidas). La tabla se divide en segmentos con su propio lock
+ * que crecen por separado.</p>
+ */
+final class OffHeapTokenTable {
+
+    static final int ENTRY_BYTES = 40;
+
+    private static final int HI = 0;
+    private static final int LO = 8;
+    private static final int USER = 16;
+    private static final int EXPIRES = 24;
+    private static final int SESSION = 32;
+
+    private static final int SEGMENTS = 16;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 1 << 24;
+    private static final double LOAD_FACTOR = 0.7;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param expectedEntries Cantidad de entradas esperada, para dimensionar la tabla inicial.
+     */
+    OffHeapTokenTable(long expectedEntries) {
+        long perSegment = (long) (expectedEntries / SEGMENTS / LOAD_FACTOR) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(MAX_CAPACITY, Math.max(MIN_CAPACITY, perSegment)) * 2 - 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Entrada leída de la tabla.
+     *
+     * @param userId           Id del usuario dueño del token.
+     * @param expiresAt        Expiración por inactividad (segundos epoch).
+     * @param sessionExpiresAt Expiración absoluta de la sesión (segundos epoch).
+     */
+    record Entry(long userId, long expiresAt, long sessionExpiresAt) {
+    }
+
+    /**
+     * Inserta o reemplaza una entrada.
+     */
+    void put(long hi, long lo, long userId, long expiresAt, long sessionExpiresAt) {
+        if (expiresAt <= 0) {
+            throw new IllegalArgumentException("La expiración debe ser positiva");
+        }
+        Segment segment = segment(hi);
+        segment.lock.lock();
+        try {
+            segment.put(hi, lo, userId, expiresAt, sessionExpiresAt);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Quita la entrada y la retorna si seguía vigente. Es atómico: si dos peticiones
+     * presentan el mismo token, solo una lo obtiene.
+     *
+     * @param now Instante actual (segundos epoch).
+     * @return La entrada, o null si no existe o ya expiró.
+     */
+    Entry take(long hi, long lo, long now) {
+        Segment segment = segment(hi);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hi, lo);
+            if (slot < 0) {
+                return null;
+            }
+            int base = slot * ENTRY_BYTES;
+            ByteBuffer table = segment.table;
+            Entry entry = new Entry(table.getLong(base + USER), table.getLong(base + EXPIRES), table.getLong(base + SESSION));
+            segment.deleteAt(slot);
+            return entry.expiresAt() > now ? entry : null;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @return true si la entrada existía y se eliminó.
+     */
+    boolean remove(long hi, long lo) {
+        Segment segment = segment(hi);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hi, lo);
+            if (slot < 0) {
+                return false;
+            }
+            segment.deleteAt(slot);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina la entrada si ya expiró.
+     *
+     * @param now Instante actual (segundos epoch).
+     * @return La expiración de la entrada si sigue vigente, o 0 si no existe o se eliminó.
+     */
+    long sweep(long hi, long lo, long now) {
+        Segment segment = segment(hi);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hi, lo);
+            if (slot < 0) {
+                return 0;
+            }
+            long expiresAt = segment.table.getLong(slot * ENTRY_BYTES + EXPIRES);
+            if (expiresAt > now) {
+                return expiresAt;
+            }
+            segment.deleteAt(slot);
+            return 0;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    int segmentCount() {
+        return SEGMENTS;
+    }
+
+    /**
+     * Copia las entradas ocupadas de un segmento, empaquetadas en el mismo formato de 40 bytes.
+     * El lock del segmento solo se retiene durante la copia en memoria.
+     *
+     * @param index Índice del segmento.
+     * @return Buffer en modo lectura con {@code remaining() / ENTRY_BYTES} entradas.
+     */
+    ByteBuffer exportSegment(int index) {
+        Segment segment = segments[index];
+        segment.lock.lock();
+        try {
+            ByteBuffer out = ByteBuffer.allocate(segment.size * ENTRY_BYTES);
+            ByteBuffer table = segment.table;
+            for (int slot = 0; slot <= segment.mask; slot++) {
+                int base = slot * ENTRY_BYTES;
+                if (table.getLong(base + EXPIRES) != 0) {
+                    out.put(table.slice(base, ENTRY_BYTES));
+                }
+            }
+            return out.flip();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de entradas almacenadas.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Bytes reservados fuera del heap.
+     */
+    long offHeapBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                bytes += segment.table.capacity();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return bytes;
+    }
+
+    private Segment segment(long hi) {
+        return segments[(int) (hi >>> 60) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private ByteBuffer table;
+        private int mask;
+        private int size;
+        private int threshold;
+
+        Segment(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            // Los buffers directos se inicializan en cero: expiración 0 marca un slot libre.
+            table = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES);
+            mask = capacity - 1;
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        private int home(long lo) {
+            return (int) lo & mask;
+        }
+
+        int find(long hi, long lo) {
+            for (int slot = home(lo); ; slot = (slot + 1) & mask) {
+                int base = slot * ENTRY_BYTES;
+                if (table.getLong(base + EXPIRES) == 0) {
+                    return -1;
+                }
+                if (table.getLong(base + LO) == lo && table.getLong(base + HI) == hi) {
+                    return slot;
+                }
+            }
+        }
+
+        void put(long hi, long lo, long userId, long expiresAt, long sessionExpiresAt) {
+            if (size >= threshold) {
+                grow();
+            }
+            int slot = home(lo);
+            while (true) {
+                int base = slot * ENTRY_BYTES;
+                if (table.getLong(base + EXPIRES) == 0) {
+                    size++;
+                    break;
+                }
+                if (table.getLong(base + LO) == lo && table.getLong(base + HI) == hi) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int base = slot * ENTRY_BYTES;
+            table.putLong(base + HI, hi);
+            table.putLong(base + LO, lo);
+            table.putLong(base + USER, userId);
+            table.putLong(base + EXPIRES, expiresAt);
+            table.putLong(base + SESSION, sessionExpiresAt);
+        }
+
+        /**
+         * Borra el slot y desplaza hacia atrás las entradas siguientes del mismo grupo de sondeo
+         * que quedarían inalcanzables, de modo que la tabla nunca acumula lápidas.
+         */
+        void deleteAt(int slot) {
+            int hole = slot;
+            for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+                int base = next * ENTRY_BYTES;
+                if (table.getLong(base + EXPIRES) == 0) {
+                    break;
+                }
+                int home = home(table.getLong(base + LO));
+                boolean reachable = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!reachable) {
+                    table.put(hole * ENTRY_BYTES, table, base, ENTRY_BYTES);
+                    hole = next;
+                }
+            }
+            int base = hole * ENTRY_BYTES;
+            for (int offset = 0; offset < ENTRY_BYTES; offset += Long.BYTES) {
+                table.putLong(base + offset, 0);
+            }
+            size--;
+        }
+
+        private void grow() {
+            int capacity = mask + 1;
+            if (capacity >= MAX_CAPACITY) {
+                throw new IllegalStateException("El almacén de refresh tokens alcanzó su capacidad máxima");
+            }
+            ByteBuffer old = table;
+            allocate(capacity * 2);
+            size = 0;
+            for (int base = 0; base < old.capacity(); base += ENTRY_BYTES) {
+                long expiresAt = old.getLong(base + EXPIRES);
+                if (expiresAt != 0) {
+                    put(old.getLong(base + HI), old.getLong(base + LO), old.getLong(base + USER),
+                        expiresAt, old.getLong(base + SESSION));
+                }
+            }
+        }
+    }
+}
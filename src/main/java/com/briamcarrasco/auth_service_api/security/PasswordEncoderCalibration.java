@@ -0,0 +1,136 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Construye el codificador de contraseñas con prefijo de algoritmo ({@code {bcrypt}}, {@code {argon2}},
+ * {@code {pbkdf2}}) y calibra al iniciar el costo del algoritmo con que se codifica, para que un hash
+ * tarde aproximadamente {@code target} en el hardware actual.
+ *
+ * <p>BCrypt y Argon2 guardan sus parámetros dentro del hash, así que los hashes anteriores siguen
+ * verificándose con cualquier costo y {@link PasswordEncoder#upgradeEncoding} detecta los que quedaron
+ * por debajo del costo actual. PBKDF2 no guarda las iteraciones en el hash: se usa con parámetros fijos
+ * (los de Spring Security 5.8) y no se calibra. Los hashes sin prefijo se tratan como BCrypt.</p>
+ */
+@Slf4j
+public final class PasswordEncoderCalibration {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final int BCRYPT_MAX_STRENGTH = 31;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MAX_ITERATIONS = 1000;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "Calibraci0n!";
+
+    /**
+     * Costo elegido por la calibración.
+     *
+     * @param algorithm Algoritmo de codificación.
+     * @param cost      Strength de BCrypt, iteraciones de Argon2 o de PBKDF2.
+     * @param measured  Duración medida de un hash con ese costo.
+     */
+    public record Result(String algorithm, int cost, Duration measured) {
+    }
+
+    private final DelegatingPasswordEncoder encoder;
+    private final Result result;
+
+    private PasswordEncoderCalibration(DelegatingPasswordEncoder encoder, Result result) {
+        this.encoder = encoder;
+        this.result = result;
+    }
+
+    /**
+     * Calibra el algoritmo de codificación y construye el codificador delegante.
+     *
+     * @param algorithm           Algoritmo para los hashes nuevos: "bcrypt", "argon2" o "pbkdf2".
+     * @param target              Duración objetivo de un hash.
+     * @param bcryptMinStrength   Strength mínimo de BCrypt, aunque supere el objetivo.
+     * @param argon2MemoryKib     Memoria de Argon2 en KiB (fija; se calibran las iteraciones).
+     * @param argon2MinIterations Iteraciones mínimas de Argon2.
+     * @return Codificador y costo elegido.
+     */
+    public static PasswordEncoderCalibration calibrate(String algorithm, Duration target, int bcryptMinStrength,
+                                                       int argon2MemoryKib, int argon2MinIterations) {
+        int bcryptStrength = bcryptMinStrength;
+        int argon2Iterations = argon2MinIterations;
+        Result result;
+        switch (algorithm) {
+            case BCRYPT -> {
+                long nanos = measure(new BCryptPasswordEncoder(bcryptStrength));
+                // Cada punto de strength duplica el trabajo.
+                while (bcryptStrength < BCRYPT_MAX_STRENGTH && nanos * 2 <= target.toNanos()) {
+                    bcryptStrength++;
+                    nanos *= 2;
+                }
+                result = new Result(BCRYPT, bcryptStrength, Duration.ofNanos(nanos));
+            }
+            case ARGON2 -> {
+                long nanos = measure(argon2(argon2MemoryKib, argon2MinIterations));
+                long perIteration = Math.max(1, nanos / argon2MinIterations);
+                argon2Iterations = (int) Math.min(ARGON2_MAX_ITERATIONS,
+                    Math.max(argon2MinIterations, target.toNanos() / perIteration));
+                result = new Result(ARGON2, argon2Iterations, Duration.ofNanos(perIteration * argon2Iterations));
+            }
+            case PBKDF2 -> {
+                long nanos = measure(Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+                result = new Result(PBKDF2, 310_000, Duration.ofNanos(nanos));
+            }
+            default -> throw new IllegalArgumentException("Algoritmo de hashing desconocido '" + algorithm
+                + "'; válidos: " + String.join(", ", BCRYPT, ARGON2, PBKDF2));
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2(argon2MemoryKib, argon2Iterations));
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes guardados antes de usar prefijos.
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        log.info("Hashing de contraseñas: {} con costo {} (~{} ms por hash, objetivo {} ms)",
+            result.algorithm(), result.cost(), result.measured().toMillis(), target.toMillis());
+        return new PasswordEncoderCalibration(encoder, result);
+    }
+
+    public DelegatingPasswordEncoder encoder() {
+        return encoder;
+    }
+
+    public Result result() {
+        return result;
+    }
+
+    private static Argon2PasswordEncoder argon2(int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, memoryKib, iterations);
+    }
+
+    /**
+     * @return Mediana de varios hashes, tras uno de calentamiento.
+     */
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
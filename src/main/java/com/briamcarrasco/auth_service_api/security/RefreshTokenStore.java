@@ -0,0 +1,238 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Almacén de refresh tokens opacos con expiración deslizante.
+ *
+ * <p>Un refresh token son 256 bits aleatorios en Base64 URL. El almacén solo guarda los primeros
+ * 128 bits de su SHA-256 en una {@link OffHeapTokenTable} (40 bytes por token fuera del heap), de
+ * modo que ni la memoria ni el snapshot en disco contienen tokens utilizables. Cada uso rota el
+ * token: el anterior se elimina y el nuevo vence tras {@code auth.refresh.ttl} de inactividad, sin
+ * superar {@code auth.refresh.max-lifetime} desde el login. Los tokens vencidos se eliminan con una
+ * {@link TimerWheel} y la tabla se guarda periódicamente en disco para sobrevivir a un reinicio.</p>
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int WHEEL_SLOTS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlSeconds;
+    private final long maxLifetimeSeconds;
+    private final Path snapshotPath;
+    private final OffHeapTokenTable table;
+    private final TimerWheel wheel;
+    private final Counter rotated;
+    private final Counter rejected;
+    private volatile boolean dirty;
+
+    /**
+     * Token emitido o rotado.
+     *
+     * @param token     Refresh token (solo se entrega al cliente, no se almacena).
+     * @param userId    Id del usuario dueño del token.
+     * @param expiresAt Expiración del token (segundos epoch).
+     * @param sessionStartedAt Inicio de la sesión, es decir, del login que originó la cadena de rotaciones (segundos epoch).
+     */
+    public record Issued(String token, long userId, long expiresAt, long sessionStartedAt) {
+    }
+
+    public RefreshTokenStore(@Value("${auth.refresh.ttl:14d}") Duration ttl,
+                             @Value("${auth.refresh.max-lifetime:30d}") Duration maxLifetime,
+                             @Value("${auth.refresh.expected-tokens:100000}") long expectedTokens,
+                             @Value("${auth.refresh.sweep-interval:60000}") long sweepIntervalMillis,
+                             @Value("${auth.refresh.snapshot-path:./data/refresh-tokens.bin}") String snapshotPath,
+                             MeterRegistry meterRegistry) {
+        this.ttlSeconds = ttl.toSeconds();
+        this.maxLifetimeSeconds = maxLifetime.toSeconds();
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.table = new OffHeapTokenTable(expectedTokens);
+        this.wheel = new TimerWheel(Math.max(1, sweepIntervalMillis / 1000), WHEEL_SLOTS, Instant.now().getEpochSecond());
+        this.rotated = Counter.builder("auth.refresh.requests")
+            .description("Usos de refresh tokens")
+            .tag("result", "rotated")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("auth.refresh.requests")
+            .description("Usos de refresh tokens")
+            .tag("result", "rejected")
+            .register(meterRegistry);
+        Gauge.builder("auth.refresh.tokens", table, OffHeapTokenTable::size)
+            .description("Refresh tokens almacenados")
+            .register(meterRegistry);
+        Gauge.builder("auth.refresh.memory", table, OffHeapTokenTable::offHeapBytes)
+            .description("Memoria fuera del heap reservada para refresh tokens")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Emite un refresh token para una nueva sesión.
+     *
+     * @param userId Id del usuario autenticado.
+     * @return Token emitido.
+     */
+    public Issued create(long userId) {
+        long now = Instant.now().getEpochSecond();
+        return store(userId, now + maxLifetimeSeconds, now);
+    }
+
+    /**
+     * Consume un refresh token y emite su reemplazo. Un token solo puede usarse una vez.
+     *
+     * @param token Refresh token presentado por el cliente.
+     * @return Nuevo token, o null si el token no existe, ya se usó o expiró.
+     */
+    public Issued rotate(String token) {
+        long now = Instant.now().getEpochSecond();
+        ByteBuffer key = key(token);
+        OffHeapTokenTable.Entry entry = key == null ? null : table.take(key.getLong(0), key.getLong(8), now);
+        if (entry == null || entry.sessionExpiresAt() <= now) {
+            rejected.increment();
+            return null;
+        }
+        rotated.increment();
+        return store(entry.userId(), entry.sessionExpiresAt(), now);
+    }
+
+    /**
+     * Revoca un refresh token (logout).
+     *
+     * @param token Refresh token.
+     * @return true si el token existía.
+     */
+    public boolean remove(String token) {
+        ByteBuffer key = key(token);
+        if (key == null || !table.remove(key.getLong(0), key.getLong(8))) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    private Issued store(long userId, long sessionExpiresAt, long now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        ByteBuffer key = key(token);
+        long expiresAt = Math.min(now + ttlSeconds, sessionExpiresAt);
+        table.put(key.getLong(0), key.getLong(8), userId, expiresAt, sessionExpiresAt);
+        wheel.schedule(key.getLong(0), key.getLong(8), expiresAt);
+        dirty = true;
+        return new Issued(token, userId, expiresAt, sessionExpiresAt - maxLifetimeSeconds);
+    }
+
+    /**
+     * @return Los primeros 128 bits del SHA-256 del token, o null si el token está vacío.
+     */
+    private static ByteBuffer key(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Elimina los tokens vencidos de los slots de la rueda alcanzados desde la última revisión.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh.sweep-interval:60000}")
+    public void sweep() {
+        if (wheel.advance(Instant.now().getEpochSecond(), table::sweep) > 0) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Guarda la tabla en disco (escritura atómica vía archivo temporal). Cada segmento se escribe
+     * como su cantidad de entradas seguida de las entradas de 40 bytes.
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh.snapshot-interval:30000}")
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotPath == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "refresh-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                for (int i = 0; i < table.segmentCount(); i++) {
+                    ByteBuffer entries = table.exportSegment(i);
+                    out.writeInt(entries.remaining() / OffHeapTokenTable.ENTRY_BYTES);
+                    out.write(entries.array(), 0, entries.remaining());
+                }
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("No se pudo guardar el snapshot de refresh tokens en {}", snapshotPath, e);
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        long loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            while (true) {
+                int count;
+                try {
+                    count = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    long hi = in.readLong();
+                    long lo = in.readLong();
+                    long userId = in.readLong();
+                    long expiresAt = in.readLong();
+                    long sessionExpiresAt = in.readLong();
+                    if (expiresAt > now) {
+                        table.put(hi, lo, userId, expiresAt, sessionExpiresAt);
+                        wheel.schedule(hi, lo, expiresAt);
+                        loaded++;
+                    }
+                }
+            }
+            log.info("Cargados {} refresh tokens desde {}", loaded, snapshotPath);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot de refresh tokens en {}", snapshotPath, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Validador que rechaza los tokens cuyo jti figura en el {@link TokenRevocationStore}, o cuyo
+ * usuario (subject) tiene revocados los tokens emitidos hasta después de su claim iat.
+ */
+public class RevokedTokenValidator implements OAuth2TokenValidator<Jwt> {
+
+    /**
+     * Descripción del error OAuth2 para tokens revocados.
+     */
+    public static final String REVOKED_DESCRIPTION = "El token fue revocado";
+
+    private static final OAuth2TokenValidatorResult REVOKED = OAuth2TokenValidatorResult.failure(
+        new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, REVOKED_DESCRIPTION, null));
+
+    private final TokenRevocationStore revocationStore;
+
+    public RevokedTokenValidator(TokenRevocationStore revocationStore) {
+        this.revocationStore = revocationStore;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt token) {
+        if (revocationStore.isRevoked(token.getId()) || isUserRevoked(token)) {
+            return REVOKED;
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+
+    private boolean isUserRevoked(Jwt token) {
+        long userId;
+        try {
+            userId = Long.parseLong(token.getSubject());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return revocationStore.isUserRevoked(userId, token.getIssuedAt());
+    }
+}
@@ -1,10 +1,16 @@
 package com.briamcarrasco.auth_service_api.security;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -16,32 +22,78 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     /**
-     * Bean para el codificador de contraseñas utilizando BCrypt.
-     * Este bean se utiliza para encriptar y verificar contraseñas de usuarios.
+     * Bean para el codificador de contraseñas.
+     * Delega según el prefijo del hash ({bcrypt}, {argon2}, {pbkdf2}; sin prefijo = BCrypt) y codifica
+     * con el algoritmo configurado, cuyo costo se calibra al iniciar para acercarse a la duración objetivo.
+     * El hashing se ejecuta en un pool dedicado con cola acotada para no bloquear los hilos de Tomcat.
      *
-     * @return Implementación de PasswordEncoder basada en BCrypt.
+     * @param algorithm           Algoritmo para los hashes nuevos ("bcrypt", "argon2" o "pbkdf2").
+     * @param targetDuration      Duración objetivo de un hash.
+     * @param bcryptMinStrength   Strength mínimo de BCrypt.
+     * @param argon2MemoryKib     Memoria de Argon2 en KiB.
+     * @param argon2MinIterations Iteraciones mínimas de Argon2.
+     * @param threads             Hilos de hashing (0 = cantidad de procesadores).
+     * @param queueCapacity       Tamaño máximo de la cola de hashing.
+     * @param retryAfterSeconds   Segundos sugeridos en Retry-After cuando la cola está llena.
+     * @param meterRegistry       Registro de métricas.
+     * @return Implementación de PasswordEncoder acotada y delegante.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.hashing.algorithm:bcrypt}") String algorithm,
+                                           @Value("${auth.hashing.target-duration:100ms}") Duration targetDuration,
+                                           @Value("${auth.hashing.bcrypt.min-strength:10}") int bcryptMinStrength,
+                                           @Value("${auth.hashing.argon2.memory:19456}") int argon2MemoryKib,
+                                           @Value("${auth.hashing.argon2.min-iterations:2}") int argon2MinIterations,
+                                           @Value("${auth.hashing.threads:0}") int threads,
+                                           @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${auth.hashing.retry-after:1}") long retryAfterSeconds,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        PasswordEncoderCalibration calibration = PasswordEncoderCalibration.calibrate(algorithm, targetDuration,
+            bcryptMinStrength, argon2MemoryKib, argon2MinIterations);
+        Gauge.builder("auth.hashing.cost", calibration.result(), PasswordEncoderCalibration.Result::cost)
+            .description("Costo elegido al iniciar para los hashes nuevos (strength de BCrypt o iteraciones)")
+            .tag("algorithm", calibration.result().algorithm())
+            .register(meterRegistry);
+        return new BoundedPasswordEncoder(calibration.encoder(), poolSize, queueCapacity,
+            retryAfterSeconds, meterRegistry);
     }
 
     /**
      * Configura la cadena de filtros de seguridad de Spring Security.
-     * En este caso, deshabilita CSRF y permite todas las solicitudes sin autenticación.
+     * Deshabilita CSRF y sesiones; las rutas /users/** requieren un token Bearer que se
+     * verifica localmente (firma y expiración) sin consultar la base de datos. De Actuator
+     * solo /actuator/health es público; el resto requiere rol admin. Que una modificación sea sobre
+     * la propia cuenta (o de un admin) se comprueba en UserController, porque PUT lleva el id en el cuerpo.
      *
-     * @param http Objeto HttpSecurity para configurar la seguridad HTTP.
+     * @param http                       Objeto HttpSecurity para configurar la seguridad HTTP.
+     * @param jwtDecoder                 Decodificador de tokens de acceso.
+     * @param jwtAuthenticationConverter Conversor de claims a autoridades.
      * @return SecurityFilterChain configurada.
      * @throws Exception Si ocurre un error en la configuración.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                                                   JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                // El registro masivo hashea miles de contraseñas en el pool compartido: solo administradores.
+                .requestMatchers("/auth/register/batch").hasRole("admin")
+                // Revocar todos los tokens de un usuario equivale a deshabilitar sus sesiones.
+                .requestMatchers("/auth/revoke/users/*").hasRole("admin")
+                .requestMatchers("/auth/**", "/actuator/health", "/actuator/health/**").permitAll()
+                // Métricas y Prometheus revelan rutas, volumen de logins y estado interno: solo administradores.
+                .requestMatchers("/actuator/**").hasRole("admin")
+                .requestMatchers("/users/**").authenticated()
                 .anyRequest().permitAll()
-            );
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt
+                    .decoder(jwtDecoder)
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter)));
         return http.build();
     }
 
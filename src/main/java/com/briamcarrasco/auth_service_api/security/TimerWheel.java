@@ -0,0 +1,117 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rueda de temporización para expirar claves de 128 bits sin recorrer toda la tabla.
+ *
+ * <p>Cada slot cubre un tick y guarda las claves como pares de {@code long} en un arreglo
+ * primitivo. Una clave que expira en el instante t va al slot {@code (t / tick) % slots}; al
+ * avanzar, solo se revisan los slots de los ticks transcurridos. Las claves que aún no expiran
+ * (vencen en una vuelta posterior) se vuelven a programar, y las que ya no existen en la tabla
+ * (por ejemplo, tokens rotados) se descartan, por lo que ninguna clave obsoleta sobrevive más
+ * de una vuelta de la rueda.</p>
+ */
+final class TimerWheel {
+
+    /**
+     * Decide qué hacer con una clave cuyo slot se está revisando.
+     */
+    @FunctionalInterface
+    interface Sweeper {
+
+        /**
+         * @return La expiración si la clave sigue vigente (se vuelve a programar), o 0 si se descarta.
+         */
+        long sweep(long hi, long lo, long now);
+    }
+
+    private final long tickSeconds;
+    private final Slot[] slots;
+    private long cursor;
+
+    /**
+     * @param tickSeconds Duración de cada slot en segundos.
+     * @param slotCount   Cantidad de slots (una vuelta cubre {@code tickSeconds * slotCount}).
+     * @param now         Instante actual (segundos epoch).
+     */
+    TimerWheel(long tickSeconds, int slotCount, long now) {
+        if (tickSeconds < 1) {
+            throw new IllegalArgumentException("El tick de la rueda debe ser de al menos 1 segundo");
+        }
+        this.tickSeconds = tickSeconds;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.cursor = now / tickSeconds;
+    }
+
+    /**
+     * Programa una clave para revisarse cuando llegue su expiración. Es seguro llamarlo desde varios hilos.
+     */
+    void schedule(long hi, long lo, long expiresAt) {
+        slots[(int) Math.floorMod(expiresAt / tickSeconds, (long) slots.length)].add(hi, lo);
+    }
+
+    /**
+     * Revisa los slots de los ticks transcurridos desde la última llamada.
+     * Debe llamarse desde un único hilo.
+     *
+     * @param now     Instante actual (segundos epoch).
+     * @param sweeper Decide si cada clave se descarta o se vuelve a programar.
+     * @return Cantidad de claves descartadas.
+     */
+    int advance(long now, Sweeper sweeper) {
+        long current = now / tickSeconds;
+        long from = Math.max(cursor + 1, current - slots.length + 1);
+        int discarded = 0;
+        for (long tick = from; tick <= current; tick++) {
+            Slot slot = slots[(int) Math.floorMod(tick, (long) slots.length)];
+            long[] keys;
+            int length;
+            slot.lock.lock();
+            try {
+                keys = slot.keys;
+                length = slot.length;
+                slot.keys = new long[Slot.INITIAL_LENGTH];
+                slot.length = 0;
+            } finally {
+                slot.lock.unlock();
+            }
+            for (int i = 0; i < length; i += 2) {
+                long expiresAt = sweeper.sweep(keys[i], keys[i + 1], now);
+                if (expiresAt > 0) {
+                    schedule(keys[i], keys[i + 1], expiresAt);
+                } else {
+                    discarded++;
+                }
+            }
+        }
+        cursor = Math.max(cursor, current);
+        return discarded;
+    }
+
+    private static final class Slot {
+
+        static final int INITIAL_LENGTH = 16;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = new long[INITIAL_LENGTH];
+        private int length;
+
+        void add(long hi, long lo) {
+            lock.lock();
+            try {
+                if (length + 2 > keys.length) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                }
+                keys[length++] = hi;
+                keys[length++] = lo;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
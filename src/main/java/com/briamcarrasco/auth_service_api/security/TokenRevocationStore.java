@@ -0,0 +1,245 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Almacén de tokens de acceso revocados.
+ * Un filtro de Bloom responde la gran mayoría de las consultas (tokens no revocados) sin
+ * crear objetos; solo los positivos se confirman en el conjunto exacto jti → expiración.
+ * Además guarda, por usuario, un instante "revocado antes de": todo token de acceso emitido
+ * hasta ese instante (y toda sesión de refresh iniciada hasta entonces) deja de ser válido, lo que
+ * cubre la eliminación de un usuario y su deshabilitación por un administrador sin conocer cada jti.
+ * Las entradas se eliminan cuando ya no pueden quedar tokens afectados vigentes y ambos conjuntos
+ * se guardan periódicamente en disco para sobrevivir a un reinicio.
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile boolean dirty;
+
+    @Value("${auth.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${auth.revocation.snapshot-path:./data/revoked-tokens.bin}")
+    private String snapshotPath;
+
+    @Value("${auth.jwt.ttl}")
+    private Duration accessTokenTtl;
+
+    @Value("${auth.refresh.max-lifetime:30d}")
+    private Duration refreshMaxLifetime;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter filterPositives;
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+        filterPositives = Counter.builder("auth.revocation.filter.positives")
+            .description("Consultas que pasaron el filtro de Bloom y se confirmaron en el conjunto exacto")
+            .register(meterRegistry);
+        Gauge.builder("auth.revocation.size", revoked, Map::size)
+            .description("Tokens revocados aún vigentes")
+            .register(meterRegistry);
+        Gauge.builder("auth.revocation.users", revokedUsers, Map::size)
+            .description("Usuarios con tokens revocados por fecha de emisión")
+            .register(meterRegistry);
+        load();
+    }
+
+    /**
+     * Revoca un token hasta su fecha de expiración.
+     *
+     * @param tokenId   Identificador del token (claim jti).
+     * @param expiresAt Expiración del token.
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt.getEpochSecond());
+        filter.add(tokenId);
+        dirty = true;
+    }
+
+    /**
+     * Indica si el token fue revocado.
+     *
+     * @param tokenId Identificador del token (claim jti).
+     * @return true si el token está revocado.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        filterPositives.increment();
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revoca todos los tokens de acceso del usuario emitidos hasta el instante indicado, y sus
+     * sesiones de refresh iniciadas hasta entonces. Una revocación anterior nunca se adelanta.
+     *
+     * @param userId        Id del usuario (subject del token).
+     * @param revokedBefore Instante hasta el cual (inclusive, en segundos) se revocan sus tokens.
+     */
+    public void revokeUser(long userId, Instant revokedBefore) {
+        revokedUsers.merge(userId, revokedBefore.getEpochSecond(), Math::max);
+        dirty = true;
+    }
+
+    /**
+     * Indica si un token del usuario emitido en el instante dado quedó revocado por
+     * {@link #revokeUser(long, Instant)}.
+     *
+     * @param userId   Id del usuario (subject del token).
+     * @param issuedAt Emisión del token (claim iat) o inicio de la sesión de refresh.
+     * @return true si el token está revocado.
+     */
+    public boolean isUserRevoked(long userId, Instant issuedAt) {
+        if (revokedUsers.isEmpty() || issuedAt == null) {
+            return false;
+        }
+        Long revokedBefore = revokedUsers.get(userId);
+        return revokedBefore != null && issuedAt.getEpochSecond() <= revokedBefore;
+    }
+
+    /**
+     * Elimina las revocaciones de tokens ya expirados y reconstruye el filtro de Bloom,
+     * que no admite borrados.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:60000}")
+    public void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        long userRetention = userRetentionSeconds();
+        if (revokedUsers.values().removeIf(revokedBefore -> revokedBefore + userRetention <= now)) {
+            dirty = true;
+        }
+        if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        dirty = true;
+        BloomFilter rebuilt = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // Segunda pasada: incluye revocaciones registradas mientras se reconstruía el filtro.
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    /**
+     * Tiempo durante el que una revocación por usuario puede afectar a un token aún vigente: la
+     * vigencia de un token de acceso o, si es mayor, la duración máxima de una sesión de refresh.
+     */
+    private long userRetentionSeconds() {
+        return Math.max(accessTokenTtl.toSeconds(), refreshMaxLifetime.toSeconds());
+    }
+
+    /**
+     * Guarda el conjunto de revocaciones en disco (escritura atómica vía archivo temporal), salvo que
+     * auth.revocation.snapshot-path esté vacío: primero los jti con su expiración y luego los usuarios con su instante "revocado antes de".
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.snapshot-interval:30000}")
+    @PreDestroy
+    public void snapshot() {
+        Path file = snapshotFile();
+        if (file == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "revoked-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                Map<String, Long> copy = Map.copyOf(revoked);
+                out.writeInt(copy.size());
+                for (Map.Entry<String, Long> entry : copy.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                Map<Long, Long> users = Map.copyOf(revokedUsers);
+                out.writeInt(users.size());
+                for (Map.Entry<Long, Long> entry : users.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("No se pudo guardar el snapshot de tokens revocados en {}", file, e);
+        }
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    private void load() {
+        Path file = snapshotFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String tokenId = in.readUTF();
+                long expiresAt = in.readLong();
+                if (expiresAt > now) {
+                    revoked.put(tokenId, expiresAt);
+                    filter.add(tokenId);
+                }
+            }
+            loadUsers(in, now);
+            log.info("Cargados {} tokens y {} usuarios revocados desde {}", revoked.size(), revokedUsers.size(), file);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot de tokens revocados en {}", file, e);
+        }
+    }
+
+    private void loadUsers(DataInputStream in, long now) throws IOException {
+        int count;
+        try {
+            count = in.readInt();
+        } catch (EOFException e) {
+            // Snapshot anterior a las revocaciones por usuario.
+            return;
+        }
+        long userRetention = userRetentionSeconds();
+        for (int i = 0; i < count; i++) {
+            long userId = in.readLong();
+            long revokedBefore = in.readLong();
+            if (revokedBefore + userRetention > now) {
+                revokedUsers.put(userId, revokedBefore);
+            }
+        }
+    }
+}
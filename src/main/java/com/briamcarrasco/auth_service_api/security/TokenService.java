@@ -0,0 +1,145 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import com.briamcarrasco.auth_service_api.dto.TokenResponse;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Emite tokens de acceso JWT firmados para los usuarios autenticados.
+ * El subject del token es el id del usuario y el claim "role" lleva su rol.
+ * Junto a cada token de acceso se entrega un refresh token opaco ({@link RefreshTokenStore}).
+ */
+@Service
+public class TokenService {
+
+    /**
+     * Nombre del claim que contiene el rol del usuario.
+     */
+    public static final String ROLE_CLAIM = "role";
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${auth.jwt.issuer}")
+    private String issuer;
+
+    @Value("${auth.jwt.ttl}")
+    private Duration ttl;
+
+    /**
+     * Emite un token de acceso y un refresh token para una nueva sesión del usuario indicado.
+     *
+     * @param user Usuario autenticado.
+     * @return Respuesta con los tokens y su vigencia.
+     */
+    public TokenResponse issue(UserProfile user) {
+        return respond(user, refreshTokenStore.create(user.id()));
+    }
+
+    /**
+     * Rota el refresh token y emite un nuevo token de acceso, sin verificar la contraseña.
+     * El perfil se obtiene por id (caché de usuarios), de modo que un cambio de rol se refleja
+     * en el nuevo token y un usuario eliminado ya no puede renovar. Tampoco se renuevan las sesiones
+     * iniciadas antes de una revocación de todos los tokens del usuario ({@link #revokeUser(long)}).
+     *
+     * @param refreshToken Refresh token presentado por el cliente.
+     * @return Respuesta con los nuevos tokens, o vacío si el refresh token no es válido.
+     */
+    public Optional<TokenResponse> refresh(String refreshToken) {
+        RefreshTokenStore.Issued rotated = refreshTokenStore.rotate(refreshToken);
+        if (rotated == null) {
+            return Optional.empty();
+        }
+        if (revocationStore.isUserRevoked(rotated.userId(), Instant.ofEpochSecond(rotated.sessionStartedAt()))) {
+            refreshTokenStore.remove(rotated.token());
+            return Optional.empty();
+        }
+        UserProfile user;
+        try {
+            user = userService.findById(rotated.userId());
+        } catch (ResourceNotFoundException e) {
+            refreshTokenStore.remove(rotated.token());
+            return Optional.empty();
+        }
+        return Optional.of(respond(user, rotated));
+    }
+
+    private TokenResponse respond(UserProfile user, RefreshTokenStore.Issued refresh) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
+            .issuer(issuer)
+            .subject(String.valueOf(user.id()))
+            .issuedAt(now)
+            .expiresAt(now.plus(ttl))
+            .claim(ROLE_CLAIM, user.role())
+            .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new TokenResponse(token, "Bearer", ttl.toSeconds(),
+            refresh.token(), Math.max(0, refresh.expiresAt() - now.getEpochSecond()), user);
+    }
+
+    /**
+     * Revoca un token de acceso hasta su expiración (logout), o elimina un refresh token. Revocar un token ya revocado no tiene efecto.
+     *
+     * @param token Token JWT o refresh token a revocar.
+     * @throws IllegalArgumentException si el token es inválido o ya expiró.
+     */
+    public void revoke(String token) {
+        if (refreshTokenStore.remove(token)) {
+            return;
+        }
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(token);
+        } catch (JwtValidationException e) {
+            if (e.getErrors().stream().anyMatch(error -> RevokedTokenValidator.REVOKED_DESCRIPTION.equals(error.getDescription()))) {
+                return;
+            }
+            throw new IllegalArgumentException("Token inválido");
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Token inválido");
+        }
+        revocationStore.revoke(jwt.getId(), jwt.getExpiresAt());
+    }
+
+    /**
+     * Revoca todos los tokens de acceso emitidos hasta ahora para el usuario y sus sesiones de
+     * refresh (deshabilitación por un administrador). Los logins posteriores reciben tokens válidos.
+     *
+     * @param userId Id del usuario.
+     */
+    public void revokeUser(long userId) {
+        revocationStore.revokeUser(userId, Instant.now());
+    }
+}
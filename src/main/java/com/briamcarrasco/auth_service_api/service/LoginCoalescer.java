@@ -0,0 +1,120 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agrupa intentos de login idénticos y simultáneos para que compartan una sola verificación
+ * (consulta a la base de datos y BCrypt).
+ *
+ * <p>La clave es el nombre de usuario más un HMAC-SHA256 de la contraseña con una llave
+ * aleatoria generada al iniciar el proceso, por lo que la contraseña nunca queda en memoria
+ * como clave ni puede compararse entre procesos. La entrada se elimina apenas termina la
+ * verificación: no se guarda ningún resultado para intentos posteriores.</p>
+ */
+@Component
+public class LoginCoalescer {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final Mac prototype;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public LoginCoalescer(@Value("${auth.login.coalescing.enabled:true}") boolean enabled,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITHM, e);
+        }
+        this.leaders = Counter.builder("auth.login.coalesced")
+            .description("Intentos de login según si ejecutaron la verificación o esperaron otra en curso")
+            .tag("role", "leader")
+            .register(meterRegistry);
+        this.followers = Counter.builder("auth.login.coalesced")
+            .description("Intentos de login según si ejecutaron la verificación o esperaron otra en curso")
+            .tag("role", "follower")
+            .register(meterRegistry);
+        meterRegistry.gauge("auth.login.coalesced.inflight", inFlight, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Ejecuta la verificación, o espera el resultado de una idéntica que ya esté en curso.
+     *
+     * @param username     Nombre de usuario presentado.
+     * @param password     Contraseña presentada.
+     * @param verification Verificación a ejecutar si no hay otra en curso.
+     * @return Resultado de la verificación.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String username, String password, Supplier<T> verification) {
+        if (!enabled || username == null || password == null) {
+            return verification.get();
+        }
+        String key = key(username, password);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            followers.increment();
+            return (T) await(existing);
+        }
+        leaders.increment();
+        try {
+            T result = verification.get();
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private String key(String username, String password) {
+        Mac mac = newMac();
+        byte[] digest = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        return username + ':' + Base64.getEncoder().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " no admite clonación", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import com.briamcarrasco.auth_service_api.config.ReadYourWrites;
+import com.briamcarrasco.auth_service_api.dto.UserCredentials;
+import com.briamcarrasco.auth_service_api.exception.HashingCapacityExceededException;
+import com.briamcarrasco.auth_service_api.model.UserChangeEvent;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Actualiza en segundo plano los hashes de contraseña con costo o algoritmo desactualizado,
+ * aprovechando que el login recién verificó la contraseña en texto plano.
+ *
+ * <p>El login solo encola la tarea y responde sin esperar. La cola es acotada y las tareas que no
+ * caben se descartan (el siguiente login lo vuelve a intentar). El UPDATE solo se aplica si el hash
+ * no cambió desde que se leyó, y se registra en el outbox para que las demás instancias invaliden
+ * su caché.</p>
+ */
+@Slf4j
+@Component
+public class PasswordRehasher {
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserChangeOutbox changeOutbox;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.hashing.rehash.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.hashing.rehash.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private Counter upgraded;
+    private Counter stale;
+    private Counter dropped;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-rehash");
+                thread.setDaemon(true);
+                return thread;
+            });
+        upgraded = counter("upgraded");
+        stale = counter("stale");
+        dropped = counter("dropped");
+        failed = counter("failed");
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("auth.hashing.rehash")
+            .description("Actualizaciones de hash tras el login según su resultado")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Encola la actualización del hash si su costo o algoritmo quedó desactualizado.
+     * Debe llamarse solo después de verificar la contraseña.
+     *
+     * @param credentials Credenciales verificadas (con el hash actual).
+     * @param rawPassword Contraseña en texto plano ya verificada.
+     */
+    public void rehashIfNeeded(UserCredentials credentials, String rawPassword) {
+        if (!enabled || !passwordEncoder.upgradeEncoding(credentials.passwordHash())
+                || !pending.add(credentials.id())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    rehash(credentials, rawPassword);
+                } finally {
+                    pending.remove(credentials.id());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(credentials.id());
+            dropped.increment();
+        }
+    }
+
+    private void rehash(UserCredentials credentials, String rawPassword) {
+        String newHash;
+        try {
+            newHash = passwordEncoder.encode(rawPassword);
+        } catch (HashingCapacityExceededException e) {
+            dropped.increment();
+            return;
+        }
+        try {
+            Integer replaced = new TransactionTemplate(transactionManager).execute(status -> {
+                int rows = userRepository.replacePasswordHash(credentials.id(), credentials.passwordHash(), newHash);
+                if (rows > 0) {
+                    changeOutbox.record(UserChangeEvent.Type.UPDATE, credentials.id());
+                }
+                return rows;
+            });
+            if (replaced != null && replaced > 0) {
+                readYourWrites.markWritten(credentials.id(), credentials.username());
+                userCache.invalidate(credentials.id());
+                upgraded.increment();
+            } else {
+                stale.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("No se pudo actualizar el hash de la contraseña del usuario {}", credentials.id(), e);
+        }
+    }
+
+    /**
+     * Detiene el hilo de actualización al cerrar el contexto (las tareas pendientes se descartan).
+     */
+    @PreDestroy
+    void close() {
+        executor.shutdownNow();
+    }
+}
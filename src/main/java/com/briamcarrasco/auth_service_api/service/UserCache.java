@@ -0,0 +1,153 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import com.briamcarrasco.auth_service_api.dto.UserCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché en memoria de usuarios delante de {@code UserRepository}.
+ * Guarda las credenciales por id y mantiene índices secundarios username → id y email → id,
+ * con expulsión por tamaño y por tiempo. Las escrituras invalidan el id y sus claves
+ * secundarias; un contador de invalidaciones evita que una lectura concurrente reinserte
+ * datos anteriores a la escritura.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<Long, UserCredentials> byId;
+    private final Cache<String, Long> idByUsername;
+    private final Cache<String, Long> idByEmail;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(@Value("${auth.cache.users.max-size:10000}") long maxSize,
+                     @Value("${auth.cache.users.ttl:5m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idByUsername = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users", Tags.of("key", "id"));
+        CaffeineCacheMetrics.monitor(meterRegistry, idByUsername, "users", Tags.of("key", "username"));
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users", Tags.of("key", "email"));
+    }
+
+    /**
+     * Obtiene un usuario por id, consultando la base de datos solo si no está en caché.
+     *
+     * @param id     Identificador del usuario.
+     * @param loader Consulta a la base de datos.
+     * @return Credenciales del usuario, o vacío si no existe.
+     */
+    public Optional<UserCredentials> getById(long id, Function<Long, Optional<UserCredentials>> loader) {
+        UserCredentials cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(id, loader);
+    }
+
+    /**
+     * Obtiene un usuario por nombre de usuario, consultando la base de datos solo si no está en caché.
+     *
+     * @param username Nombre de usuario.
+     * @param loader   Consulta a la base de datos.
+     * @return Credenciales del usuario, o vacío si no existe.
+     */
+    public Optional<UserCredentials> getByUsername(String username, Function<String, Optional<UserCredentials>> loader) {
+        UserCredentials cached = resolve(idByUsername, username);
+        if (cached != null && username.equals(cached.username())) {
+            return Optional.of(cached);
+        }
+        return load(username, loader);
+    }
+
+    /**
+     * Indica si el email pertenece a un usuario en caché (sin consultar la base de datos).
+     *
+     * @param email Email a verificar.
+     * @return true si el email está en caché.
+     */
+    public boolean containsEmail(String email) {
+        UserCredentials cached = resolve(idByEmail, email);
+        return cached != null && email.equals(cached.email());
+    }
+
+    /**
+     * Indica si el nombre de usuario pertenece a un usuario en caché (sin consultar la base de datos).
+     *
+     * @param username Nombre de usuario a verificar.
+     * @return true si el nombre de usuario está en caché.
+     */
+    public boolean containsUsername(String username) {
+        UserCredentials cached = resolve(idByUsername, username);
+        return cached != null && username.equals(cached.username());
+    }
+
+    /**
+     * Invalida un usuario y sus claves secundarias tras una actualización o eliminación.
+     *
+     * @param id Identificador del usuario modificado.
+     */
+    public void invalidate(long id) {
+        invalidations.incrementAndGet();
+        UserCredentials previous = byId.asMap().remove(id);
+        if (previous != null) {
+            idByUsername.asMap().remove(previous.username(), id);
+            idByEmail.asMap().remove(previous.email(), id);
+        }
+    }
+
+    /**
+     * Vacía completamente la caché.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        byId.invalidateAll();
+        idByUsername.invalidateAll();
+        idByEmail.invalidateAll();
+    }
+
+    private UserCredentials resolve(Cache<String, Long> index, String key) {
+        if (key == null) {
+            return null;
+        }
+        Long id = index.getIfPresent(key);
+        if (id == null) {
+            return null;
+        }
+        UserCredentials cached = byId.getIfPresent(id);
+        if (cached == null) {
+            // Índice huérfano (entrada expulsada o usuario modificado): se descarta.
+            index.asMap().remove(key, id);
+        }
+        return cached;
+    }
+
+    private <K> Optional<UserCredentials> load(K key, Function<K, Optional<UserCredentials>> loader) {
+        long stamp = invalidations.get();
+        Optional<UserCredentials> loaded = loader.apply(key);
+        if (loaded.isPresent() && invalidations.get() == stamp) {
+            UserCredentials credentials = loaded.get();
+            byId.put(credentials.id(), credentials);
+            if (credentials.username() != null) {
+                idByUsername.put(credentials.username(), credentials.id());
+            }
+            if (credentials.email() != null) {
+                idByEmail.put(credentials.email(), credentials.id());
+            }
+            if (invalidations.get() != stamp) {
+                // Una escritura ocurrió mientras se insertaba: se descarta lo insertado.
+                invalidate(credentials.id());
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,220 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import com.briamcarrasco.auth_service_api.config.ReadYourWrites;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.model.UserChangeEvent;
+import com.briamcarrasco.auth_service_api.repository.UserChangeEventRepository;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Outbox transaccional de cambios de usuarios para mantener coherentes las cachés de varios nodos.
+ *
+ * <p>Cada escritura inserta un {@link UserChangeEvent} en la misma transacción que el cambio.
+ * Cada nodo lee la tabla por lotes con un cursor sobre el id y, por cada usuario cambiado en otro
+ * nodo, invalida la {@link UserCache} y actualiza el {@link UserSearchIndex} con la fila actual
+ * (leída del primario), así que aplicar un evento dos veces o fuera de orden no tiene efecto.</p>
+ *
+ * <p>Los ids salen de una secuencia, pero una transacción puede confirmar después que otra con un id
+ * mayor. Por eso los ids saltados quedan como huecos pendientes y se vuelven a consultar hasta
+ * {@code auth.outbox.gap-timeout}; pasado ese plazo se asume que la transacción se revirtió. Las
+ * cachés viven en memoria y parten vacías, por lo que al iniciar el cursor se ubica en el último
+ * evento anterior a {@code gap-timeout} y se reaplica esa ventana: ningún cambio confirmado después
+ * del arranque se pierde.</p>
+ */
+@Slf4j
+@Component
+public class UserChangeOutbox {
+
+    private static final int MAX_IN_CLAUSE = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private long position = -1;
+
+    @Autowired
+    private UserChangeEventRepository changeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.outbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${auth.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth.outbox.gap-timeout:30s}")
+    private Duration gapTimeout;
+
+    @Value("${auth.outbox.max-gaps:10000}")
+    private int maxGaps;
+
+    @Value("${auth.outbox.retention:1d}")
+    private Duration retention;
+
+    private Counter applied;
+    private Counter expiredGaps;
+
+    @PostConstruct
+    void registerMetrics() {
+        applied = Counter.builder("auth.outbox.applied")
+            .description("Cambios de usuarios hechos en otros nodos aplicados a las cachés locales")
+            .register(meterRegistry);
+        expiredGaps = Counter.builder("auth.outbox.gaps.expired")
+            .description("Ids del outbox descartados tras esperar gap-timeout (transacciones revertidas)")
+            .register(meterRegistry);
+        Gauge.builder("auth.outbox.gaps", this, outbox -> outbox.gaps.size())
+            .description("Ids del outbox saltados que aún pueden confirmarse")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registra un cambio en la transacción en curso. Debe llamarse dentro de la misma
+     * transacción que modifica el usuario.
+     *
+     * @param type   Tipo de cambio.
+     * @param userId Usuario modificado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UserChangeEvent.Type type, long userId) {
+        if (enabled) {
+            changeRepository.save(new UserChangeEvent(userId, type, nodeId));
+        }
+    }
+
+    /**
+     * Lee los eventos nuevos (y los huecos pendientes) y los aplica a las cachés locales.
+     */
+    @Scheduled(fixedDelayString = "${auth.outbox.poll-interval:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            readYourWrites.onPrimary(() -> {
+                drain();
+                return null;
+            });
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Elimina los eventos más antiguos que {@code auth.outbox.retention}.
+     */
+    @Scheduled(fixedDelayString = "${auth.outbox.purge-interval:3600000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = changeRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Eliminados {} eventos antiguos del outbox", deleted);
+        }
+    }
+
+    private void drain() {
+        if (position < 0) {
+            position = changeRepository.findMaxIdBefore(Instant.now().minus(gapTimeout));
+        }
+        if (!gaps.isEmpty()) {
+            retryGaps();
+        }
+        List<UserChangeEvent> batch;
+        do {
+            batch = changeRepository.findAfter(position, Limit.of(batchSize));
+            long deadline = System.nanoTime() + gapTimeout.toNanos();
+            for (UserChangeEvent event : batch) {
+                for (long missing = position + 1; missing < event.getId(); missing++) {
+                    if (gaps.size() >= maxGaps) {
+                        expiredGaps.increment(event.getId() - missing);
+                        break;
+                    }
+                    gaps.put(missing, deadline);
+                }
+                position = event.getId();
+            }
+            apply(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    private void retryGaps() {
+        long now = System.nanoTime();
+        int before = gaps.size();
+        gaps.values().removeIf(deadline -> deadline - now < 0);
+        expiredGaps.increment(before - gaps.size());
+        List<Long> pending = new ArrayList<>(gaps.keySet());
+        for (int from = 0; from < pending.size(); from += MAX_IN_CLAUSE) {
+            List<UserChangeEvent> found = changeRepository.findByIdIn(
+                pending.subList(from, Math.min(from + MAX_IN_CLAUSE, pending.size())));
+            found.forEach(event -> gaps.remove(event.getId()));
+            apply(found);
+        }
+    }
+
+    /**
+     * Invalida y vuelve a indexar los usuarios cambiados en otros nodos, con una sola consulta por lote.
+     */
+    private void apply(List<UserChangeEvent> events) {
+        Set<Long> changed = new LinkedHashSet<>();
+        for (UserChangeEvent event : events) {
+            if (!nodeId.equals(event.getOrigin())) {
+                changed.add(event.getUserId());
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        changed.forEach(userCache::invalidate);
+        Map<Long, UserProfile> current = userRepository.findProfilesByIdIn(changed).stream()
+            .collect(Collectors.toMap(UserProfile::id, Function.identity()));
+        for (long id : changed) {
+            UserProfile profile = current.get(id);
+            if (profile != null) {
+                searchIndex.put(profile);
+            } else {
+                searchIndex.remove(id);
+            }
+        }
+        applied.increment(changed.size());
+    }
+}
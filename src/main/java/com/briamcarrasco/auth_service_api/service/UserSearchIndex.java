@@ -0,0 +1,677 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice de búsqueda en memoria sobre nombre, apellidos, email y nombre de usuario.
+ *
+ * <p>Cada campo se normaliza (minúsculas, sin tildes) y se divide en términos. Un diccionario
+ * ordenado de términos resuelve coincidencias exactas y por prefijo, y un índice de trigramas
+ * de términos encuentra candidatos con errores de tipeo, que se confirman con la distancia de
+ * edición. Cada término guarda los ids de sus usuarios ordenados, así la intersección de las
+ * palabras de la consulta avanza por id ascendente y puede detenerse apenas encuentra
+ * {@code limit} usuarios con el puntaje máximo alcanzable, sin recorrer todas las coincidencias.</p>
+ *
+ * <p>Se construye al iniciar la aplicación en un hilo aparte, leyendo la tabla por páginas (si la
+ * base de datos no responde, reintenta sin afectar el arranque), y {@code UserServiceImpl} lo
+ * mantiene al día en cada escritura. La cantidad de usuarios indexados está acotada por
+ * {@code auth.search.max-documents}, y los trigramas demasiado comunes para filtrar dejan de
+ * registrar términos. Lecturas concurrentes con un lock de lectura/escritura: las escrituras
+ * son escasas frente a las búsquedas.</p>
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final Pattern SEPARATORS =
+        Pattern.compile("[^\\p{L}\\p{Nd}]+|(?<=\\p{L})(?=\\p{Nd})|(?<=\\p{Nd})(?=\\p{L})");
+    private static final Pattern WORD = Pattern.compile("\\p{L}+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int SCORE_EXACT = 4;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    /** Un trigrama presente en más términos que esto no sirve para filtrar candidatos. */
+    private static final int MAX_TERMS_PER_TRIGRAM = 2048;
+    private static final Set<String> SATURATED = Set.of();
+
+    private final UserRepository userRepository;
+    private final int maxDocuments;
+    private final int maxExpansions;
+    private final int buildPageSize;
+    private final Duration buildRetry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TreeMap<String, LongList> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Set<Long> deletedWhileBuilding = new HashSet<>();
+    private volatile boolean ready;
+    private boolean full;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           @Value("${auth.search.max-documents:500000}") int maxDocuments,
+                           @Value("${auth.search.max-expansions:64}") int maxExpansions,
+                           @Value("${auth.search.build-page-size:1000}") int buildPageSize,
+                           @Value("${auth.search.build-retry:30s}") Duration buildRetry,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.maxDocuments = maxDocuments;
+        this.maxExpansions = maxExpansions;
+        this.buildPageSize = buildPageSize;
+        this.buildRetry = buildRetry;
+        Gauge.builder("auth.search.documents", this, UserSearchIndex::size)
+            .description("Usuarios en el índice de búsqueda")
+            .register(meterRegistry);
+        Gauge.builder("auth.search.terms", this, UserSearchIndex::terms)
+            .description("Términos distintos en el índice de búsqueda")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Inicia la construcción del índice sin bloquear el arranque.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAsync() {
+        Thread builder = new Thread(this::build, "user-search-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void build() {
+        while (true) {
+            try {
+                long started = System.nanoTime();
+                long after = 0;
+                List<UserProfile> page;
+                do {
+                    page = userRepository.findProfilePage(after, Limit.of(buildPageSize));
+                    putAll(page);
+                    if (!page.isEmpty()) {
+                        after = page.get(page.size() - 1).id();
+                    }
+                } while (page.size() == buildPageSize);
+                lock.writeLock().lock();
+                try {
+                    ready = true;
+                    deletedWhileBuilding.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Índice de búsqueda construido: {} usuarios, {} términos en {} ms",
+                    size(), terms(), (System.nanoTime() - started) / 1_000_000);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("No se pudo construir el índice de búsqueda, reintentando en {}", buildRetry, e);
+                try {
+                    Thread.sleep(buildRetry.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega usuarios leídos durante la construcción, sin pisar cambios hechos mientras tanto.
+     */
+    private void putAll(List<UserProfile> users) {
+        lock.writeLock().lock();
+        try {
+            for (UserProfile user : users) {
+                if (!documents.containsKey(user.id()) && !deletedWhileBuilding.contains(user.id())) {
+                    add(user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un usuario en el índice.
+     *
+     * @param user Vista pública actualizada del usuario.
+     */
+    public void put(UserProfile user) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(user.id());
+            add(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la vista indexada de un usuario.
+     *
+     * @param id Identificador del usuario.
+     * @return Vista indexada, o null si no está en el índice.
+     */
+    public UserProfile get(long id) {
+        lock.readLock().lock();
+        try {
+            Document document = documents.get(id);
+            return document != null ? document.user : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un usuario del índice.
+     *
+     * @param id Identificador del usuario.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (!ready) {
+                deletedWhileBuilding.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca usuarios por prefijo o con pequeños errores de tipeo en cualquiera de sus campos.
+     *
+     * @param query Texto a buscar (una o más palabras).
+     * @param limit Cantidad máxima de resultados.
+     * @return Usuarios ordenados por relevancia (y por id ante empate).
+     */
+    public List<UserProfile> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (tokens.size() > 1 && query.strip().indexOf(' ') < 0) {
+                // Una sola palabra con separadores (por ejemplo un email): primero se busca completa.
+                List<UserProfile> whole = search(List.of(normalize(query)), limit);
+                if (!whole.isEmpty()) {
+                    return whole;
+                }
+            }
+            return search(new LinkedHashSet<>(tokens), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UserProfile> search(Collection<String> tokens, int limit) {
+        List<TokenMatches> matches = new ArrayList<>(tokens.size());
+        int maxScore = 0;
+        for (String token : tokens) {
+            TokenMatches match = match(token);
+            if (match.isEmpty()) {
+                return List.of();
+            }
+            matches.add(match);
+            maxScore += match.maxScore;
+        }
+        matches.sort((a, b) -> Long.compare(a.estimatedSize, b.estimatedSize));
+        return intersect(matches, maxScore, limit);
+    }
+
+    /**
+     * Recorre por id ascendente los usuarios que coinciden con todas las palabras y conserva los
+     * {@code limit} de mayor puntaje. Como los ids llegan en orden, ante empate gana el primero,
+     * y al juntar {@code limit} usuarios con el puntaje máximo ya no puede aparecer uno mejor.
+     */
+    private List<UserProfile> intersect(List<TokenMatches> matches, int maxScore, int limit) {
+        long[] topIds = new long[limit];
+        int[] topScores = new int[limit];
+        int count = 0;
+        int perfect = 0;
+        TokenMatches driver = matches.get(0);
+        long target = Long.MIN_VALUE;
+        candidates:
+        while (true) {
+            long id = driver.seek(target);
+            if (id == Long.MAX_VALUE) {
+                break;
+            }
+            for (int i = 1; i < matches.size(); i++) {
+                long other = matches.get(i).seek(id);
+                if (other == Long.MAX_VALUE) {
+                    break candidates;
+                }
+                if (other != id) {
+                    target = other;
+                    continue candidates;
+                }
+            }
+            int score = 0;
+            for (TokenMatches match : matches) {
+                score += match.scoreAt(id);
+            }
+            if (count < limit || score > topScores[count - 1]) {
+                int position = count < limit ? count++ : count - 1;
+                while (position > 0 && topScores[position - 1] < score) {
+                    topIds[position] = topIds[position - 1];
+                    topScores[position] = topScores[position - 1];
+                    position--;
+                }
+                topIds[position] = id;
+                topScores[position] = score;
+            }
+            if (score == maxScore && ++perfect >= limit) {
+                break;
+            }
+            target = id + 1;
+        }
+        List<UserProfile> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(documents.get(topIds[i]).user);
+        }
+        return results;
+    }
+
+    private TokenMatches match(String token) {
+        TokenMatches matches = new TokenMatches();
+        LongList exact = postings.get(token);
+        if (exact != null) {
+            matches.add(exact, SCORE_EXACT);
+        }
+        addExpansions(matches, postings.subMap(token, false, token + Character.MAX_VALUE, false).values(),
+            SCORE_PREFIX);
+        if (token.length() < 3 || !WORD.matcher(token).matches()) {
+            return matches;
+        }
+        int maxEdits = token.length() <= 5 ? 1 : 2;
+        List<String> trigrams = trigrams(token);
+        int saturated = 0;
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            Set<String> candidates = termsByTrigram.get(trigram);
+            if (candidates == SATURATED) {
+                saturated++;
+            } else if (candidates != null) {
+                for (String candidate : candidates) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        if (saturated == trigrams.size()) {
+            return matches;
+        }
+        // Lema de q-gramas: con k ediciones se pierden a lo sumo 3k trigramas.
+        int required = Math.max(1, trigrams.size() - 3 * maxEdits - saturated);
+        List<LongList> fuzzy = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String term = entry.getKey();
+            if (entry.getValue() < required || term.startsWith(token)
+                    || Math.abs(term.length() - token.length()) > maxEdits
+                    || editDistance(token, term, maxEdits) > maxEdits) {
+                continue;
+            }
+            fuzzy.add(postings.get(term));
+        }
+        addExpansions(matches, fuzzy, SCORE_FUZZY);
+        return matches;
+    }
+
+    /**
+     * Agrega las listas de los términos a los que se expande una palabra. Hasta {@code maxExpansions}
+     * se recorren por separado; si son más (por ejemplo el prefijo "ma"), se unen en una sola lista,
+     * con un costo proporcional a sus ids, en vez de descartar términos.
+     */
+    private void addExpansions(TokenMatches matches, Collection<LongList> lists, int score) {
+        if (lists.size() <= maxExpansions) {
+            for (LongList list : lists) {
+                matches.add(list, score);
+            }
+        } else {
+            matches.add(LongList.union(lists), score);
+        }
+    }
+
+    /**
+     * @return true si la construcción inicial terminó.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void add(UserProfile user) {
+        if (documents.size() >= maxDocuments) {
+            if (!full) {
+                full = true;
+                log.warn("Índice de búsqueda lleno ({} usuarios): los nuevos usuarios no serán buscables", maxDocuments);
+            }
+            return;
+        }
+        String[] terms = terms(user);
+        documents.put(user.id(), new Document(user, terms));
+        for (String term : terms) {
+            LongList ids = postings.get(term);
+            if (ids == null) {
+                ids = new LongList();
+                postings.put(term, ids);
+                for (String trigram : fuzzyTrigrams(term)) {
+                    Set<String> sharing = termsByTrigram.computeIfAbsent(trigram, k -> new HashSet<>());
+                    if (sharing != SATURATED) {
+                        sharing.add(term);
+                        if (sharing.size() > MAX_TERMS_PER_TRIGRAM) {
+                            termsByTrigram.put(trigram, SATURATED);
+                        }
+                    }
+                }
+            }
+            ids.add(user.id());
+        }
+    }
+
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            LongList ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : fuzzyTrigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(trigram);
+                    if (terms != null && terms != SATURATED && terms.remove(term) && terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int terms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Términos de un usuario: las palabras de cada campo, más el email y el nombre de usuario completos.
+     * Del email solo se indexa la parte local, para no crear listas enormes con dominios comunes.
+     */
+    private static String[] terms(UserProfile user) {
+        Set<String> terms = new LinkedHashSet<>();
+        terms.addAll(tokenize(user.name()));
+        terms.addAll(tokenize(user.firstLastname()));
+        terms.addAll(tokenize(user.secondLastname()));
+        terms.addAll(tokenize(user.username()));
+        if (user.username() != null && !user.username().isBlank()) {
+            terms.add(normalize(user.username()));
+        }
+        if (user.email() != null && !user.email().isBlank()) {
+            String email = normalize(user.email());
+            terms.add(email);
+            int at = email.indexOf('@');
+            terms.addAll(tokenize(at >= 0 ? email.substring(0, at) : email));
+        }
+        return terms.toArray(String[]::new);
+    }
+
+    private static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(value))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trigramas con los que un término participa en la búsqueda con errores de tipeo: solo palabras
+     * (no números, emails ni nombres de usuario completos, que se buscan por prefijo).
+     */
+    private static List<String> fuzzyTrigrams(String term) {
+        return WORD.matcher(term).matches() ? trigrams(term) : List.of();
+    }
+
+    private static List<String> trigrams(String term) {
+        if (term.length() < 3) {
+            return List.of();
+        }
+        List<String> trigrams = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Distancia de edición con transposiciones (Damerau restringida), cortando apenas supera {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private record Document(UserProfile user, String[] terms) {
+    }
+
+    /**
+     * Listas de ids de los términos que coinciden con una palabra de la consulta, con un cursor
+     * por lista. Avanza sobre la unión de las listas en orden de id.
+     */
+    private static final class TokenMatches {
+
+        private LongList[] lists = new LongList[4];
+        private int[] scores = new int[4];
+        private int[] positions = new int[4];
+        private int size;
+        private int maxScore;
+        private long estimatedSize;
+
+        void add(LongList list, int score) {
+            if (size == lists.length) {
+                lists = Arrays.copyOf(lists, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            lists[size] = list;
+            scores[size] = score;
+            size++;
+            maxScore = Math.max(maxScore, score);
+            estimatedSize += list.size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * @return Menor id mayor o igual a {@code target} en alguna de las listas, o Long.MAX_VALUE.
+         */
+        long seek(long target) {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                LongList list = lists[i];
+                int position = list.seek(positions[i], target);
+                positions[i] = position;
+                if (position < list.size) {
+                    min = Math.min(min, list.values[position]);
+                }
+            }
+            return min;
+        }
+
+        /**
+         * @return Mejor puntaje entre las listas cuyo cursor está en {@code id} (tras {@link #seek(long)}).
+         */
+        int scoreAt(long id) {
+            int best = 0;
+            for (int i = 0; i < size; i++) {
+                if (positions[i] < lists[i].size && lists[i].values[positions[i]] == id) {
+                    best = Math.max(best, scores[i]);
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Lista ordenada de ids sin boxing. Los ids nuevos suelen ser mayores que los existentes,
+     * así que agregar casi siempre es escribir al final.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            int position = size > 0 && values[size - 1] >= value ? Arrays.binarySearch(values, 0, size, value) : -size - 1;
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, position, values, position + 1, size - position);
+            values[position] = value;
+            size++;
+        }
+
+        boolean remove(long value) {
+            int position = Arrays.binarySearch(values, 0, size, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * @return Lista nueva con los ids de todas las listas, ordenados y sin repetir.
+         */
+        static LongList union(Collection<LongList> lists) {
+            int total = 0;
+            for (LongList list : lists) {
+                total += list.size;
+            }
+            long[] values = new long[total];
+            int offset = 0;
+            for (LongList list : lists) {
+                System.arraycopy(list.values, 0, values, offset, list.size);
+                offset += list.size;
+            }
+            Arrays.sort(values);
+            int size = 0;
+            for (int i = 0; i < total; i++) {
+                if (size == 0 || values[size - 1] != values[i]) {
+                    values[size++] = values[i];
+                }
+            }
+            LongList union = new LongList();
+            union.values = size > 0 ? values : new long[2];
+            union.size = size;
+            return union;
+        }
+
+        /**
+         * Búsqueda exponencial desde {@code from} de la primera posición con valor mayor o igual a {@code target}.
+         */
+        int seek(int from, long target) {
+            if (from >= size || values[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && values[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int position = Arrays.binarySearch(values, low + 1, Math.min(high + 1, size), target);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.briamcarrasco.auth_service_api.service;
 
+import com.briamcarrasco.auth_service_api.dto.BatchRegistrationResult;
+import com.briamcarrasco.auth_service_api.dto.UserPage;
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.dto.VersionedUserProfile;
 import com.briamcarrasco.auth_service_api.model.User;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interfaz para la lógica de negocio relacionada con usuarios.
@@ -10,29 +16,47 @@ import java.util.List;
 public interface UserService {
     
     /**
-     * Registra un nuevo usuario en el sistema.
+     * Registra un nuevo usuario en el sistema, siempre con el rol "users".
      * @param user Usuario a registrar.
      * @return Usuario registrado.
      */
     User register(User user);
 
+    /**
+     * Registra un lote de usuarios: valida cada uno, calcula los hashes en paralelo
+     * e inserta en lotes JDBC. Un usuario inválido o duplicado no impide registrar al resto.
+     * @param users Usuarios a registrar.
+     * @return Resultado individual de cada usuario, en el orden recibido.
+     */
+    List<BatchRegistrationResult> registerBatch(List<User> users);
+
     /**
      * Autentica a un usuario con username y password.
      * @param username Nombre de usuario.
      * @param password Contraseña en texto plano.
-     * @return Usuario autenticado si las credenciales son correctas, vacío si no.
+     * @return Vista pública del usuario si las credenciales son correctas, vacío si no.
      */
-    Optional<User> login(String username, String password);
+    Optional<UserProfile> login(String username, String password);
 
     /**
      * Actualiza la información de un usuario existente.
      * @param user Usuario con los datos actualizados.
+     * @param expectedVersion Versión recibida en If-Match, o null para no comprobarla.
      * @return Usuario actualizado.
      */
-    User update(User user);
+    User update(User user, Long expectedVersion);
+
+    /**
+     * Aplica una actualización parcial con un único UPDATE de los campos enviados.
+     * Solo calcula el hash si se envía una nueva contraseña.
+     * @param id Identificador del usuario.
+     * @param patch Campos a modificar.
+     * @param expectedVersion Versión recibida en If-Match, o null para no comprobarla.
+     */
+    void patch(Long id, UserPatch patch, Long expectedVersion);
 
     /**
-     * Elimina un usuario por su ID.
+     * Elimina un usuario por su ID y revoca los tokens de acceso que ya tenía emitidos.
      * @param id Identificador del usuario a eliminar.
      */
     void deleteById(Long id);
@@ -42,13 +66,56 @@ public interface UserService {
      * Lanza una excepción ResourceNotFoundException si el usuario no existe.
      * 
      * @param id Identificador único del usuario.
-     * @return Usuario encontrado.
+     * @return Vista pública del usuario encontrado.
      */
-    User findById(Long id);
+    UserProfile findById(Long id);
+
+    /**
+     * Busca un usuario por su ID junto con la versión de su fila, para generar el ETag.
+     * Lanza una excepción ResourceNotFoundException si el usuario no existe.
+     *
+     * @param id Identificador único del usuario.
+     * @return Vista pública y versión del usuario encontrado.
+     */
+    VersionedUserProfile findVersionedById(Long id);
+
+    /**
+     * Busca un usuario por su RUT (con o sin puntos y guion).
+     * Si hay más de un usuario con el mismo RUT, retorna el de menor id.
+     *
+     * @param rut RUT del usuario.
+     * @return Vista pública del usuario encontrado.
+     */
+    UserProfile findByRut(String rut);
+
+    /**
+     * Busca usuarios por nombre, apellidos, email o nombre de usuario, por prefijo
+     * y tolerando pequeños errores de tipeo.
+     *
+     * @param query Texto a buscar.
+     * @param limit Cantidad máxima de resultados (opcional).
+     * @return Usuarios ordenados por relevancia.
+     */
+    List<UserProfile> search(String query, Integer limit);
 
     /**
      * Obtiene la lista de todos los usuarios.
-     * @return Lista de usuarios.
+     * @return Lista de vistas públicas de usuarios.
+     */
+    List<UserProfile> findAll();
+
+    /**
+     * Obtiene una página de usuarios usando paginación keyset sobre el id.
+     * @param after Último id recibido (null o 0 para la primera página).
+     * @param size Tamaño de página solicitado (se acota al máximo configurado).
+     * @return Página de usuarios con el cursor siguiente.
+     */
+    UserPage findPage(Long after, Integer size);
+
+    /**
+     * Recorre todos los usuarios en orden de id con un cursor de solo avance,
+     * entregándolos uno a uno sin materializar la tabla completa en memoria.
+     * @param consumer Receptor de cada usuario.
      */
-    List<User> findAll();
+    void exportAll(Consumer<UserProfile> consumer);
 }
\ No newline at end of file
@@ -1,13 +1,52 @@
 package com.briamcarrasco.auth_service_api.service;
 
+import com.briamcarrasco.auth_service_api.audit.AuditEventType;
+import com.briamcarrasco.auth_service_api.audit.AuditLog;
+import com.briamcarrasco.auth_service_api.config.ReadYourWrites;
+import com.briamcarrasco.auth_service_api.dto.BatchRegistrationResult;
+import com.briamcarrasco.auth_service_api.dto.UserCredentials;
+import com.briamcarrasco.auth_service_api.dto.UserPage;
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.dto.VersionedUserProfile;
+import com.briamcarrasco.auth_service_api.exception.PreconditionFailedException;
 import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import com.briamcarrasco.auth_service_api.exception.UniqueConstraints;
 import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.model.UserChangeEvent;
 import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import com.briamcarrasco.auth_service_api.security.BoundedPasswordEncoder;
+import com.briamcarrasco.auth_service_api.security.TokenRevocationStore;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Implementación de la lógica de negocio para usuarios.
@@ -16,16 +55,99 @@ import java.util.Optional;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final String VERSION_MISMATCH =
+        "El usuario fue modificado por otra petición. Vuelva a consultarlo antes de actualizarlo.";
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private LoginCoalescer loginCoalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private UserChangeOutbox changeOutbox;
+
+    @Autowired
+    private PasswordRehasher passwordRehasher;
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    private Counter loginSuccess;
+    private Counter loginFailure;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${auth.users.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    @Value("${auth.users.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${auth.users.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${auth.users.page-size.max:500}")
+    private int maxPageSize;
+
+    @Value("${auth.users.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${auth.search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${auth.search.max-limit:100}")
+    private int maxSearchLimit;
+
     /**
-     * Registra un nuevo usuario en el sistema.
-     * Valida que el email y el nombre de usuario no estén registrados previamente.
-     * Asigna el rol "users" si no se especifica y encripta la contraseña antes de guardar.
+     * Registra los contadores de login una sola vez para no buscarlos en cada intento.
+     */
+    @PostConstruct
+    void registerMetrics() {
+        loginSuccess = Counter.builder("auth.login")
+            .description("Intentos de login según su resultado")
+            .tag("result", "success")
+            .register(meterRegistry);
+        loginFailure = Counter.builder("auth.login")
+            .description("Intentos de login según su resultado")
+            .tag("result", "failure")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registra un nuevo usuario en el sistema con un único INSERT.
+     * Los duplicados de email o nombre de usuario se detectan por las restricciones únicas
+     * de la tabla (sin consultas previas, y sin carreras entre registros concurrentes);
+     * la caché de usuarios permite rechazar sin ir a la base de datos los duplicados ya conocidos.
+     * Siempre asigna el rol "users" (el registro es público: un rol enviado por el cliente permitiría
+     * obtener un token de administrador) y encripta la contraseña antes de guardar.
+     * El id y la versión enviados por el cliente se descartan: con un id existente, guardar haría
+     * un merge (UPDATE) sobre otra cuenta en vez de un INSERT.
      *
      * @param user Usuario a registrar.
      * @return Usuario registrado.
@@ -33,34 +155,189 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public User register(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userCache.containsEmail(user.getEmail())) {
             throw new IllegalArgumentException("El email ya está registrado");
         }
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (userCache.containsUsername(user.getUsername())) {
             throw new IllegalArgumentException("El nombre de usuario ya está registrado");
         }
-        if (user.getRole() == null || user.getRole().isBlank()) {
-            user.setRole("users");
-        }
+        user.setId(0);
+        user.setVersion(0);
+        user.setRole("users");
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = inTransaction(status -> {
+                User inserted = userRepository.saveAndFlush(user);
+                changeOutbox.record(UserChangeEvent.Type.REGISTER, inserted.getId());
+                return inserted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.describe(e).map(IllegalArgumentException::new).orElseThrow(() -> e);
+        }
+        readYourWrites.markWritten(saved.getId(), saved.getUsername());
+        auditLog.record(AuditEventType.REGISTER, saved.getId(), saved.getUsername());
+        searchIndex.put(UserProfile.from(saved));
+        return saved;
+    }
+
+    /**
+     * Registra un lote de usuarios.
+     * Valida cada usuario (incluidas las restricciones del RUT) y los duplicados dentro del lote,
+     * calcula los hashes en paralelo en el pool de hashing e inserta por bloques en una transacción
+     * por bloque, aprovechando el batching JDBC. Si un bloque falla por una restricción única,
+     * sus usuarios se reintentan de a uno para identificar exactamente cuáles fallaron.
+     * Solo lo invocan administradores, así que se respeta el rol enviado ("users" si no se especifica).
+     *
+     * @param users Usuarios a registrar.
+     * @return Resultado individual de cada usuario, en el orden recibido.
+     * @throws IllegalArgumentException si el lote supera el tamaño máximo permitido.
+     */
+    @Override
+    public List<BatchRegistrationResult> registerBatch(List<User> users) {
+        if (users.size() > maxBatchSize) {
+            throw new IllegalArgumentException("El lote supera el máximo de " + maxBatchSize + " usuarios");
+        }
+        BatchRegistrationResult[] results = new BatchRegistrationResult[users.size()];
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = validate(user);
+            if (error == null && !emails.add(user.getEmail())) {
+                error = "El email está repetido en el lote";
+            }
+            if (error == null && !usernames.add(user.getUsername())) {
+                error = "El nombre de usuario está repetido en el lote";
+            }
+            if (error != null) {
+                results[i] = BatchRegistrationResult.failed(i, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        List<String> rawPasswords = accepted.stream().map(i -> users.get(i).getPassword()).toList();
+        List<String> hashes = passwordEncoder instanceof BoundedPasswordEncoder bounded
+            ? bounded.encodeAll(rawPasswords)
+            : rawPasswords.stream().map(passwordEncoder::encode).toList();
+        for (int j = 0; j < accepted.size(); j++) {
+            User user = users.get(accepted.get(j));
+            user.setId(0);
+            user.setPassword(hashes.get(j));
+            if (user.getRole() == null || user.getRole().isBlank()) {
+                user.setRole("users");
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < accepted.size(); from += batchChunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + batchChunkSize, accepted.size()));
+            List<User> chunkUsers = chunk.stream().map(users::get).toList();
+            try {
+                transaction.executeWithoutResult(status -> {
+                    userRepository.saveAll(chunkUsers);
+                    userRepository.flush();
+                    chunkUsers.forEach(user -> changeOutbox.record(UserChangeEvent.Type.REGISTER, user.getId()));
+                });
+                for (int index : chunk) {
+                    User user = users.get(index);
+                    results[index] = BatchRegistrationResult.created(index, user.getId());
+                    readYourWrites.markWritten(user.getId(), user.getUsername());
+                    auditLog.record(AuditEventType.REGISTER, user.getId(), user.getUsername());
+                    searchIndex.put(UserProfile.from(user));
+                }
+            } catch (DataIntegrityViolationException e) {
+                for (int index : chunk) {
+                    results[index] = registerSingle(index, users.get(index));
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private BatchRegistrationResult registerSingle(int index, User user) {
+        user.setId(0);
+        try {
+            User saved = inTransaction(status -> {
+                User inserted = userRepository.saveAndFlush(user);
+                changeOutbox.record(UserChangeEvent.Type.REGISTER, inserted.getId());
+                return inserted;
+            });
+            readYourWrites.markWritten(saved.getId(), saved.getUsername());
+            auditLog.record(AuditEventType.REGISTER, saved.getId(), saved.getUsername());
+            searchIndex.put(UserProfile.from(saved));
+            return BatchRegistrationResult.created(index, saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            return BatchRegistrationResult.failed(index,
+                UniqueConstraints.describe(e).orElse("Los datos entran en conflicto con un registro existente"));
+        }
+    }
+
+    /**
+     * Ejecuta una escritura junto con su evento del outbox en una sola transacción.
+     */
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        return new TransactionTemplate(transactionManager).execute(action);
+    }
+
+    private String validate(User user) {
+        if (user == null) {
+            return "Usuario vacío";
+        }
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        if (user.getUsername() == null || user.getUsername().isBlank()
+                || user.getEmail() == null || user.getEmail().isBlank()
+                || user.getPassword() == null || user.getPassword().isBlank()) {
+            return "username, email y password son obligatorios";
+        }
+        if (userCache.containsEmail(user.getEmail())) {
+            return "El email ya está registrado";
+        }
+        if (userCache.containsUsername(user.getUsername())) {
+            return "El nombre de usuario ya está registrado";
+        }
+        return null;
     }
 
     /**
      * Autentica a un usuario verificando el nombre de usuario y la contraseña.
+     * Lee solo las columnas necesarias mediante una proyección, sin cargar la entidad,
+     * y consulta primero la caché de usuarios para evitar el viaje a la base de datos.
+     * Los intentos idénticos y simultáneos comparten una sola verificación.
+     * Con réplica de lectura, un usuario modificado recién se lee del primario.
+     * Si el hash tiene un costo o algoritmo desactualizado, se reemplaza en segundo plano.
      *
      * @param username Nombre de usuario.
      * @param password Contraseña en texto plano.
-     * @return Usuario autenticado si las credenciales son correctas, vacío si no.
+     * @return Vista pública del usuario si las credenciales son correctas, vacío si no.
      */
     @Override
-    public Optional<User> login(String username, String password) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            if (passwordEncoder.matches(password, user.getPassword())) {
-                return Optional.of(user);
-            }
+    public Optional<UserProfile> login(String username, String password) {
+        Optional<UserProfile> profile = loginCoalescer.execute(username, password, () -> verify(username, password));
+        if (profile.isPresent()) {
+            loginSuccess.increment();
+            auditLog.record(AuditEventType.LOGIN_SUCCESS, profile.get().id(), username);
+        } else {
+            loginFailure.increment();
+            auditLog.record(AuditEventType.LOGIN_FAILURE, 0, username);
+        }
+        return profile;
+    }
+
+    private Optional<UserProfile> verify(String username, String password) {
+        Optional<UserCredentials> credentials = userCache.getByUsername(username,
+            key -> readYourWrites.readForUsername(key, () -> userRepository.findCredentialsByUsername(key)));
+        if (credentials.isPresent() && passwordEncoder.matches(password, credentials.get().passwordHash())) {
+            passwordRehasher.rehashIfNeeded(credentials.get(), password);
+            return Optional.of(credentials.get().toProfile());
         }
         return Optional.empty();
     }
@@ -69,56 +346,231 @@ public class UserServiceImpl implements UserService {
      * Actualiza la información de un usuario existente.
      * Si se proporciona una nueva contraseña, la encripta antes de guardar.
      * Si no se proporciona contraseña, conserva la anterior.
+     * La versión se compara antes de calcular el hash y el UPDATE queda condicionado a la versión
+     * leída, así que una edición concurrente nunca se sobrescribe en silencio.
      *
-     * @param user Usuario con los datos actualizados.
+     * @param user            Usuario con los datos actualizados.
+     * @param expectedVersion Versión recibida en If-Match, o null para no comprobarla.
      * @return Usuario actualizado.
      * @throws IllegalArgumentException si el usuario no existe.
+     * @throws PreconditionFailedException si la versión no coincide con la actual.
      */
     @Override
-    public User update(User user) {
-        Optional<User> existingUser = userRepository.findById(user.getId());
+    public User update(User user, Long expectedVersion) {
+        Optional<User> existingUser = readYourWrites.onPrimary(() -> userRepository.findById(user.getId()));
         if (existingUser.isEmpty()) {
             throw new IllegalArgumentException("El usuario no existe");
         }
+        long currentVersion = existingUser.get().getVersion();
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new PreconditionFailedException(VERSION_MISMATCH);
+        }
+        user.setVersion(currentVersion);
         if (user.getPassword() != null && !user.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         } else {
             user.setPassword(existingUser.get().getPassword());
         }
-        return userRepository.save(user);
+        User saved = inTransaction(status -> {
+            User merged = userRepository.save(user);
+            changeOutbox.record(UserChangeEvent.Type.UPDATE, merged.getId());
+            return merged;
+        });
+        readYourWrites.markWritten(saved.getId(), existingUser.get().getUsername(), saved.getUsername());
+        userCache.invalidate(saved.getId());
+        auditLog.record(AuditEventType.UPDATE, saved.getId(), saved.getUsername());
+        searchIndex.put(UserProfile.from(saved));
+        return saved;
+    }
+
+    /**
+     * Aplica una actualización parcial sin leer ni reescribir la fila completa.
+     * BCrypt solo se ejecuta si se envió una nueva contraseña.
+     * Con versión esperada, el UPDATE solo se aplica si la fila sigue en esa versión.
+     *
+     * @param id              Identificador del usuario.
+     * @param patch           Campos a modificar.
+     * @param expectedVersion Versión recibida en If-Match, o null para no comprobarla.
+     * @throws ResourceNotFoundException si el usuario no existe.
+     * @throws IllegalArgumentException si el nuevo email o nombre de usuario ya existen.
+     * @throws PreconditionFailedException si la versión no coincide con la actual.
+     */
+    @Override
+    public void patch(Long id, UserPatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            long currentVersion = findVersionedById(id).version();
+            if (expectedVersion != null && expectedVersion != currentVersion) {
+                throw new PreconditionFailedException(VERSION_MISMATCH);
+            }
+            return;
+        }
+        String passwordHash = patch.hasPassword() ? passwordEncoder.encode(patch.password()) : null;
+        int updated;
+        try {
+            updated = inTransaction(status -> {
+                int rows = userRepository.patch(id, patch, passwordHash, expectedVersion);
+                if (rows > 0) {
+                    changeOutbox.record(UserChangeEvent.Type.UPDATE, id);
+                }
+                return rows;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueConstraints.describe(e).map(IllegalArgumentException::new).orElseThrow(() -> e);
+        }
+        if (updated == 0) {
+            if (expectedVersion != null && readYourWrites.onPrimary(() -> userRepository.existsById(id))) {
+                throw new PreconditionFailedException(VERSION_MISMATCH);
+            }
+            throw new ResourceNotFoundException("Usuario no encontrado con id: " + id);
+        }
+        UserProfile indexed = searchIndex.get(id);
+        readYourWrites.markWritten(id, indexed != null ? indexed.username() : null, patch.username());
+        userCache.invalidate(id);
+        auditLog.record(AuditEventType.UPDATE, id, patch.username());
+        if (indexed != null) {
+            searchIndex.put(indexed.apply(patch));
+        }
     }
 
     /**
-     * Elimina un usuario por su ID.
+     * Elimina un usuario por su ID y revoca los tokens de acceso que ya tenía emitidos.
      *
      * @param id Identificador del usuario a eliminar.
      */
     @Override
     public void deleteById(Long id) {
-        userRepository.deleteById(id);
+        inTransaction(status -> {
+            userRepository.deleteById(id);
+            changeOutbox.record(UserChangeEvent.Type.DELETE, id);
+            return null;
+        });
+        readYourWrites.markWritten(id);
+        userCache.invalidate(id);
+        revocationStore.revokeUser(id, Instant.now());
+        auditLog.record(AuditEventType.DELETE, id, null);
+        searchIndex.remove(id);
     }
 
     /**
-     * Busca un usuario por su ID.
+     * Busca un usuario por su ID, consultando primero la caché de usuarios.
+     * Con réplica de lectura, un usuario modificado recién se lee del primario.
      * Lanza una excepción ResourceNotFoundException si el usuario no existe.
      *
      * @param id Identificador del usuario.
-     * @return Usuario encontrado.
+     * @return Vista pública del usuario encontrado.
+     * @throws ResourceNotFoundException si el usuario no existe.
+     */
+    @Override
+    public UserProfile findById(Long id) {
+        return credentialsById(id).toProfile();
+    }
+
+    /**
+     * Busca un usuario por su ID junto con la versión de su fila, desde la caché de usuarios.
+     * Permite responder un GET condicional sin consultar la base de datos.
+     *
+     * @param id Identificador del usuario.
+     * @return Vista pública y versión del usuario encontrado.
      * @throws ResourceNotFoundException si el usuario no existe.
      */
     @Override
-    public User findById(Long id) {
-        return userRepository.findById(id)
+    public VersionedUserProfile findVersionedById(Long id) {
+        return credentialsById(id).toVersionedProfile();
+    }
+
+    private UserCredentials credentialsById(Long id) {
+        return userCache.getById(id, key -> readYourWrites.readForUser(key, () -> userRepository.findCredentialsById(key)))
             .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + id));
     }
 
+    /**
+     * Busca usuarios en el índice en memoria, sin consultar la base de datos.
+     *
+     * @param query Texto a buscar.
+     * @param limit Cantidad máxima de resultados; se usa el valor por defecto si es null y se acota al máximo.
+     * @return Usuarios ordenados por relevancia.
+     * @throws IllegalArgumentException si la consulta está vacía.
+     */
+    @Override
+    public List<UserProfile> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("La búsqueda no puede estar vacía");
+        }
+        int size = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        return searchIndex.search(query, size);
+    }
+
+    /**
+     * Busca un usuario por RUT usando el índice sobre su parte numérica.
+     *
+     * @param rut RUT del usuario.
+     * @return Vista pública del usuario encontrado.
+     * @throws IllegalArgumentException si el RUT no es válido.
+     * @throws ResourceNotFoundException si no hay usuarios con ese RUT.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UserProfile findByRut(String rut) {
+        long rutNumber = Rut.parse(rut);
+        if (rutNumber < 0) {
+            throw new IllegalArgumentException("El RUT no es válido");
+        }
+        List<UserProfile> users = userRepository.findProfilesByRutNumber(rutNumber, Limit.of(1));
+        if (users.isEmpty()) {
+            throw new ResourceNotFoundException("Usuario no encontrado con RUT: " + Rut.format(rutNumber));
+        }
+        return users.get(0);
+    }
+
     /**
      * Obtiene la lista de todos los usuarios registrados.
      *
-     * @return Lista de usuarios.
+     * @return Lista de vistas públicas de usuarios.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserProfile> findAll() {
+        return userRepository.findAllProfiles();
+    }
+
+    /**
+     * Obtiene una página de usuarios con id mayor al cursor.
+     * Usa el índice de la clave primaria, por lo que el costo no crece con la profundidad de la página.
+     *
+     * @param after Último id recibido (null o 0 para la primera página).
+     * @param size  Tamaño de página solicitado.
+     * @return Página de usuarios con el cursor siguiente.
      */
     @Override
-    public List<User> findAll() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public UserPage findPage(Long after, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        long cursor = after == null ? 0L : after;
+        List<UserProfile> items = userRepository.findProfilePage(cursor, Limit.of(pageSize));
+        Long next = items.size() == pageSize ? items.get(items.size() - 1).id() : null;
+        return new UserPage(items, next);
+    }
+
+    /**
+     * Recorre todos los usuarios con un scroll de solo avance y fetch size acotado.
+     * La proyección no crea entidades administradas, por lo que la memoria usada
+     * no depende del tamaño de la tabla.
+     *
+     * @param consumer Receptor de cada usuario.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<UserProfile> consumer) {
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<UserProfile> rows = session
+                .createSelectionQuery("select new " + UserRepository.PROFILE + " from User u order by u.id", UserProfile.class)
+                .setReadOnly(true)
+                .setFetchSize(exportFetchSize)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                consumer.accept(rows.get());
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.briamcarrasco.auth_service_api.validation;
+
+/**
+ * Utilidades para el RUT chileno.
+ *
+ * <p>Acepta los formatos habituales ({@code 12.345.678-5}, {@code 12345678-5}, {@code 123456785},
+ * con {@code k} o {@code K}) y los reduce a la parte numérica, que es lo que se indexa en la base
+ * de datos. La forma canónica para guardar y mostrar es {@code 12345678-5}.</p>
+ */
+public final class Rut {
+
+    /** Mayor parte numérica aceptada (8 dígitos). */
+    public static final long MAX_NUMBER = 99_999_999L;
+
+    private Rut() {
+    }
+
+    /**
+     * Valida un RUT y obtiene su parte numérica en una sola pasada y sin asignar memoria.
+     * Verifica el formato y el dígito verificador (módulo 11).
+     *
+     * @param value RUT en cualquiera de los formatos aceptados.
+     * @return Parte numérica del RUT, o -1 si no es válido.
+     */
+    public static long parse(CharSequence value) {
+        if (value == null) {
+            return -1;
+        }
+        int length = value.length();
+        if (length < 2 || length > 12) {
+            return -1;
+        }
+        int end = length - 1;
+        char checkDigit = value.charAt(end);
+        if (value.charAt(end - 1) == '-') {
+            end--;
+        }
+        long number = 0;
+        int digits = 0;
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+                digits++;
+            } else if (c != '.') {
+                return -1;
+            }
+        }
+        if (digits == 0 || digits > 8 || number == 0) {
+            return -1;
+        }
+        char expected = checkDigit(number);
+        return (checkDigit == expected || (expected == 'K' && checkDigit == 'k')) ? number : -1;
+    }
+
+    /**
+     * Indica si un RUT es válido.
+     *
+     * @param value RUT en cualquiera de los formatos aceptados.
+     * @return true si tiene formato válido y el dígito verificador es correcto.
+     */
+    public static boolean isValid(CharSequence value) {
+        return parse(value) > 0;
+    }
+
+    /**
+     * Calcula el dígito verificador (módulo 11).
+     *
+     * @param number Parte numérica del RUT.
+     * @return Dígito verificador: '0'-'9' o 'K'.
+     */
+    public static char checkDigit(long number) {
+        int sum = 0;
+        int factor = 2;
+        for (long rest = number; rest > 0; rest /= 10) {
+            sum += (int) (rest % 10) * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+        }
+        int digit = 11 - (sum % 11);
+        return digit == 11 ? '0' : digit == 10 ? 'K' : (char) ('0' + digit);
+    }
+
+    /**
+     * Construye la forma canónica de un RUT.
+     *
+     * @param number Parte numérica del RUT.
+     * @return RUT con el formato 12345678-5.
+     */
+    public static String format(long number) {
+        return number + "-" + checkDigit(number);
+    }
+
+    /**
+     * Convierte un RUT a su forma canónica.
+     *
+     * @param value RUT en cualquiera de los formatos aceptados.
+     * @return RUT con el formato 12345678-5.
+     * @throws IllegalArgumentException si el RUT no es válido.
+     */
+    public static String normalize(CharSequence value) {
+        long number = parse(value);
+        if (number < 0) {
+            throw new IllegalArgumentException("El RUT no es válido");
+        }
+        return format(number);
+    }
+}
@@ -0,0 +1,15 @@
+package com.briamcarrasco.auth_service_api.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Validador de {@link ValidRut}: delega en {@link Rut#parse(CharSequence)}, que no asigna memoria.
+ */
+public class RutValidator implements ConstraintValidator<ValidRut, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || Rut.isValid(value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.briamcarrasco.auth_service_api.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Valida que el valor sea un RUT chileno con dígito verificador correcto.
+ * Los valores nulos se consideran válidos; combinar con {@code @NotNull} si es obligatorio.
+ */
+@Documented
+@Constraint(validatedBy = RutValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidRut {
+
+    String message() default "El RUT no es válido (formato 12345678-5 y dígito verificador correcto)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -3,7 +3,7 @@ package com.briamcarrasco.auth_service_api;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "auth.jwt.secret=${random.value}${random.value}")
 class AuthServiceApiApplicationTests {
 
 	@Test
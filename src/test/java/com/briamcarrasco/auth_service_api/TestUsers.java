@@ -0,0 +1,36 @@
+package com.briamcarrasco.auth_service_api;
+
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.validation.Rut;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usuarios de prueba válidos y únicos (email, username y RUT) para los tests de integración.
+ */
+public final class TestUsers {
+
+	public static final String PASSWORD = "P@ssw0rd!";
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+	private TestUsers() {
+	}
+
+	/**
+	 * @param prefix Prefijo del username y del email, para reconocer al usuario en los datos.
+	 * @return Usuario nuevo, aún sin guardar.
+	 */
+	public static User newUser(String prefix) {
+		int n = SEQUENCE.incrementAndGet();
+		User user = new User();
+		user.setName("Nombre");
+		user.setFirstLastname("Apellido");
+		user.setSecondLastname("Segundo");
+		user.setEmail(prefix + n + "@test.local");
+		user.setUsername(prefix + n);
+		user.setPassword(PASSWORD);
+		user.setRole("users");
+		user.setRut(Rut.format(20_000_000L + n));
+		return user;
+	}
+}
@@ -0,0 +1,179 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class AuditRingBufferTest {
+
+	private static final int PRODUCERS = 4;
+	private static final int EVENTS_PER_PRODUCER = 5_000;
+
+	@TempDir
+	Path dir;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/** El userId codifica productor y número de evento para verificar pérdidas, duplicados y orden. */
+	private static long userId(int producer, int event) {
+		return producer * 1_000_000L + event;
+	}
+
+	/** Lanza los productores a la vez y espera a que terminen. */
+	private void produce(ProducerTask task) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int p = 0; p < PRODUCERS; p++) {
+			int producer = p;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+					task.publish(producer, i);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+	}
+
+	private interface ProducerTask {
+		void publish(int producer, int event);
+	}
+
+	/** Verifica que cada productor aparezca en orden, sin duplicados, y devuelve cuántos eventos llegaron. */
+	private static int assertOrderedPerProducer(List<Long> userIds) {
+		int[] next = new int[PRODUCERS];
+		for (long id : userIds) {
+			int producer = (int) (id / 1_000_000L);
+			int event = (int) (id % 1_000_000L);
+			assertTrue(event >= next[producer], "evento repetido o fuera de orden: " + id);
+			next[producer] = event + 1;
+		}
+		return userIds.size();
+	}
+
+	@Test
+	void concurrentProducersAreDrainedExactlyOnceInOrder() throws Exception {
+		AuditRingBuffer ring = new AuditRingBuffer(64);
+		List<Long> received = new ArrayList<>();
+		AtomicBoolean done = new AtomicBoolean();
+		Thread consumer = new Thread(() -> {
+			AuditRingBuffer.Handler handler = (timestamp, type, userId, subject, offset, length) -> {
+				assertEquals("p" + userId / 1_000_000L, new String(subject, offset, length, StandardCharsets.UTF_8));
+				received.add(userId);
+			};
+			while (!done.get() || ring.size() > 0) {
+				if (ring.drain(handler, 16) == 0) {
+					Thread.yield();
+				}
+			}
+		});
+		consumer.start();
+
+		produce((producer, event) -> {
+			long sequence;
+			while ((sequence = ring.tryClaim()) < 0) {
+				Thread.yield();
+			}
+			ring.publish(sequence, event, AuditEventType.LOGIN_SUCCESS.code(), userId(producer, event), "p" + producer);
+		});
+		done.set(true);
+		consumer.join(TimeUnit.SECONDS.toMillis(30));
+
+		assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, assertOrderedPerProducer(received));
+		assertEquals(0, ring.size());
+	}
+
+	@Test
+	void fullBufferRejectsClaimsUntilDrained() {
+		AuditRingBuffer ring = new AuditRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			ring.publish(ring.tryClaim(), i, AuditEventType.REGISTER.code(), i, "u" + i);
+		}
+		assertEquals(-1, ring.tryClaim());
+
+		List<Long> drained = new ArrayList<>();
+		assertEquals(2, ring.drain((timestamp, type, userId, subject, offset, length) -> drained.add(userId), 2));
+		assertEquals(List.of(0L, 1L), drained);
+		assertEquals(4, ring.tryClaim());
+	}
+
+	@Test
+	void subjectIsTruncatedOnACharacterBoundary() {
+		byte[] target = new byte[AuditRingBuffer.SUBJECT_BYTES];
+		int length = AuditRingBuffer.encodeUtf8("ñ".repeat(40), target, 0, target.length);
+		assertEquals(64, length);
+		assertEquals("ñ".repeat(32), new String(target, 0, length, StandardCharsets.UTF_8));
+
+		length = AuditRingBuffer.encodeUtf8("a" + "ñ".repeat(40), target, 0, target.length);
+		assertEquals(63, length);
+		byte[] expected = ("a" + "ñ".repeat(31)).getBytes(StandardCharsets.UTF_8);
+		assertArrayEquals(expected, Arrays.copyOf(target, length));
+	}
+
+	private AuditLog auditLog(AuditLog.OverflowPolicy policy, Duration idleWait) {
+		AuditLog auditLog = new AuditLog(true, dir, DataSize.ofKilobytes(64), 1000, 8, 4, policy, idleWait,
+			Duration.ofSeconds(1), registry);
+		auditLog.start();
+		return auditLog;
+	}
+
+	private List<Long> readUserIds() throws Exception {
+		List<Long> userIds = new ArrayList<>();
+		AuditLogReader.read(dir, record -> userIds.add(record.userId()));
+		return userIds;
+	}
+
+	@Test
+	void dropPolicyDiscardsWhenFullAndCountsIt() throws Exception {
+		// El escritor duerme 1 s cada vez que encuentra el buffer vacío, así que se llena.
+		AuditLog auditLog = auditLog(AuditLog.OverflowPolicy.DROP, Duration.ofSeconds(1));
+		produce((producer, event) ->
+			auditLog.record(AuditEventType.LOGIN_FAILURE, userId(producer, event), "p" + producer));
+		auditLog.stop();
+
+		double dropped = registry.get("auth.audit.dropped").counter().count();
+		double written = registry.get("auth.audit.written").counter().count();
+		assertTrue(dropped > 0, "no se descartó ningún evento");
+		assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, dropped + written);
+		assertEquals((int) written, assertOrderedPerProducer(readUserIds()));
+	}
+
+	@Test
+	void blockPolicyWaitsAndLosesNothing() throws Exception {
+		AuditLog auditLog = auditLog(AuditLog.OverflowPolicy.BLOCK, Duration.ofNanos(10_000));
+		produce((producer, event) ->
+			auditLog.record(AuditEventType.LOGIN_FAILURE, userId(producer, event), "p" + producer));
+		auditLog.stop();
+
+		assertEquals(0.0, registry.get("auth.audit.dropped").counter().count());
+		assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, assertOrderedPerProducer(readUserIds()));
+	}
+}
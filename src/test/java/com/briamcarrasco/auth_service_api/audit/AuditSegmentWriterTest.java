@@ -0,0 +1,112 @@
+package com.briamcarrasco.auth_service_api.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditSegmentWriterTest {
+
+	/** Caben 5 registros con sujeto de 10 bytes por segmento. */
+	private static final int SEGMENT_SIZE = Integer.BYTES + 5 * (AuditSegmentWriter.RECORD_HEADER_BYTES + 10);
+
+	@TempDir
+	Path dir;
+
+	private static void append(AuditSegmentWriter writer, int i) throws IOException {
+		byte[] subject = "usuario%03d".formatted(i).getBytes(StandardCharsets.UTF_8);
+		writer.append(1_000L + i, AuditEventType.values()[i % AuditEventType.values().length].code(), i,
+			subject, 0, subject.length);
+	}
+
+	private List<AuditRecord> read(Path path) throws IOException {
+		List<AuditRecord> records = new ArrayList<>();
+		AuditLogReader.read(path, records::add);
+		return records;
+	}
+
+	private static void assertRecords(List<AuditRecord> records, int from, int to) {
+		assertEquals(to - from, records.size());
+		for (int i = from; i < to; i++) {
+			AuditRecord record = records.get(i - from);
+			assertEquals(Instant.ofEpochMilli(1_000L + i), record.timestamp());
+			assertEquals(AuditEventType.values()[i % AuditEventType.values().length], record.type());
+			assertEquals(i, record.userId());
+			assertEquals("usuario%03d".formatted(i), record.subject());
+		}
+	}
+
+	@Test
+	void recordsRoundTripAcrossRotatedSegments() throws IOException {
+		try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, SEGMENT_SIZE, 100)) {
+			for (int i = 0; i < 23; i++) {
+				append(writer, i);
+			}
+		}
+		List<Path> segments = AuditSegmentWriter.listSegments(dir);
+		assertEquals(5, segments.size());
+		// Los segmentos cerrados se recortan a lo escrito.
+		assertEquals(Integer.BYTES + 3 * (AuditSegmentWriter.RECORD_HEADER_BYTES + 10), Files.size(segments.get(4)));
+		assertRecords(read(dir), 0, 23);
+	}
+
+	@Test
+	void rotationKeepsOnlyTheNewestSegments() throws IOException {
+		try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, SEGMENT_SIZE, 2)) {
+			for (int i = 0; i < 23; i++) {
+				append(writer, i);
+			}
+		}
+		assertEquals(2, AuditSegmentWriter.listSegments(dir).size());
+		assertRecords(read(dir), 15, 23);
+	}
+
+	@Test
+	void segmentTruncatedMidRecordIsReadUpToTheLastCompleteRecord() throws IOException {
+		try (AuditSegmentWriter writer = new AuditSegmentWriter(dir, SEGMENT_SIZE, 100)) {
+			for (int i = 0; i < 8; i++) {
+				append(writer, i);
+			}
+		}
+		Path last = AuditSegmentWriter.listSegments(dir).get(1);
+		try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 5);
+		}
+		assertRecords(read(dir), 0, 7);
+	}
+
+	@Test
+	void segmentLeftOpenByACrashEndsAtTheFirstEmptyRecord() throws IOException {
+		AuditSegmentWriter writer = new AuditSegmentWriter(dir, SEGMENT_SIZE, 100);
+		try {
+			for (int i = 0; i < 3; i++) {
+				append(writer, i);
+			}
+			writer.flush();
+			// Sin cerrar: el archivo conserva el tamaño completo con ceros tras el último registro.
+			Path segment = AuditSegmentWriter.listSegments(dir).get(0);
+			assertEquals(SEGMENT_SIZE, Files.size(segment));
+			assertRecords(read(segment), 0, 3);
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Test
+	void fileWithoutMagicIsRejected() throws IOException {
+		Path file = Files.write(dir.resolve("audit-1.log"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+		IOException e = assertThrows(IOException.class, () -> read(file));
+		assertTrue(e.getMessage().contains("No es un segmento de auditoría"));
+	}
+}
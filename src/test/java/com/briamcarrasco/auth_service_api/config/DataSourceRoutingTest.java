@@ -0,0 +1,148 @@
+package com.briamcarrasco.auth_service_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Enrutamiento lectura/escritura con dos bases H2 independientes: como nada se replica,
+ * una lectura que llega a la réplica no ve lo escrito en el primario.
+ */
+@SpringBootTest(properties = {
+	"auth.datasource.routing.enabled=true",
+	"spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=Oracle;DB_CLOSE_DELAY=-1",
+	"spring.datasource.hikari.maximum-pool-size=4",
+	"auth.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=Oracle;DB_CLOSE_DELAY=-1",
+	"auth.datasource.replica.username=sa",
+	"auth.datasource.replica.hikari.maximum-pool-size=2"
+})
+@ActiveProfiles("h2")
+class DataSourceRoutingTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void copySchemaToReplica() {
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("DROP ALL OBJECTS");
+		new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class).forEach(replicaJdbc::execute);
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void poolsAreSizedIndependently() throws SQLException {
+		assertEquals(4, primary.unwrap(HikariDataSource.class).getMaximumPoolSize());
+		assertEquals(2, replica.unwrap(HikariDataSource.class).getMaximumPoolSize());
+	}
+
+	@Test
+	void readOnlyQueriesGoToReplica() {
+		User saved = userService.register(TestUsers.newUser("routing"));
+
+		assertTrue(userService.findAll().stream().noneMatch(u -> u.id() == saved.getId()));
+		Integer inPrimary = new JdbcTemplate(primary)
+			.queryForObject("select count(*) from tb_users where id_user = ?", Integer.class, saved.getId());
+		assertEquals(1, inPrimary);
+	}
+
+	@Test
+	void writtenUserIsReadFromPrimary() {
+		User saved = userService.register(TestUsers.newUser("routing"));
+
+		assertEquals(saved.getId(), userService.findById(saved.getId()).id());
+		assertTrue(userService.login(saved.getUsername(), "P@ssw0rd!").isPresent());
+	}
+
+	@Test
+	void writerReadsItsOwnWrites() {
+		User saved = userService.register(TestUsers.newUser("routing"));
+		authenticateAs(saved.getId());
+
+		assertTrue(userService.findAll().stream().anyMatch(u -> u.id() == saved.getId()));
+	}
+
+	@Test
+	void loginReadsCredentialsFromReplica() {
+		User replicaOnly = insertIntoReplica(TestUsers.newUser("replica"));
+		double replicaReads = replicaReads();
+
+		assertTrue(userService.login(replicaOnly.getUsername(), TestUsers.PASSWORD).isPresent());
+		assertTrue(replicaReads() > replicaReads);
+	}
+
+	@Test
+	void userByIdIsReadFromReplica() {
+		User replicaOnly = insertIntoReplica(TestUsers.newUser("replica"));
+		double replicaReads = replicaReads();
+
+		// La misma lectura que GET /users/{id}.
+		assertEquals(replicaOnly.getUsername(), userService.findVersionedById(replicaOnly.getId()).profile().username());
+		assertTrue(replicaReads() > replicaReads);
+	}
+
+	/**
+	 * Inserta el usuario solo en la réplica, con un id que el primario nunca asigna en este test.
+	 */
+	private User insertIntoReplica(User user) {
+		user.setId(1_000_000L + Long.parseLong(user.getUsername().replaceAll("\\D", "")));
+		new JdbcTemplate(replica).update("""
+			insert into tb_users (id_user, name, first_lastname, second_lastname, email, username, password, role, rut, version)
+			values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)""",
+			user.getId(), user.getName(), user.getFirstLastname(), user.getSecondLastname(), user.getEmail(),
+			user.getUsername(), passwordEncoder.encode(user.getPassword()), user.getRole(), user.getRut());
+		return user;
+	}
+
+	private double replicaReads() {
+		return meterRegistry.get("auth.datasource.reads").tag("target", "replica").counter().count();
+	}
+
+	private static void authenticateAs(long id) {
+		Jwt jwt = Jwt.withTokenValue("token")
+			.header("alg", "HS256")
+			.subject(String.valueOf(id))
+			.issuedAt(Instant.now())
+			.expiresAt(Instant.now().plusSeconds(60))
+			.build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+	}
+}
@@ -0,0 +1,256 @@
+package com.briamcarrasco.auth_service_api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import com.jayway.jsonpath.JsonPath;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * Endpoints públicos de /auth sobre H2.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:auth;MODE=Oracle;DB_CLOSE_DELAY=-1",
+	"auth.users.batch.max-size=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AuthControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private JwtEncoder jwtEncoder;
+
+	@Autowired
+	private JwtDecoder jwtDecoder;
+
+	@Value("${auth.jwt.issuer}")
+	private String issuer;
+
+	@Test
+	void registerIgnoresClientSuppliedId() throws Exception {
+		User existing = userService.register(TestUsers.newUser("victima"));
+		Map<String, Object> before = row(existing.getId());
+
+		User attacker = TestUsers.newUser("atacante");
+		String body = """
+			{"id":%d,"name":"X","firstLastname":"X","secondLastname":"X","email":"%s",
+			 "username":"%s","password":"Otr4Cl@ve!","rut":"%s"}
+			""".formatted(existing.getId(), attacker.getEmail(), attacker.getUsername(), attacker.getRut());
+		mvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isOk());
+
+		assertEquals(before, row(existing.getId()));
+		assertTrue(userService.login(existing.getUsername(), TestUsers.PASSWORD).isPresent());
+		long attackerId = jdbc.queryForObject("select id_user from tb_users where username = ?", Long.class,
+			attacker.getUsername());
+		assertNotEquals(existing.getId(), attackerId);
+	}
+
+	@Test
+	void registerIgnoresClientSuppliedRole() throws Exception {
+		User user = TestUsers.newUser("intruso");
+		mvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+				.content(json(user).replace("}", ",\"role\":\"admin\"}")))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.role").value("users"));
+
+		String token = login(user.getUsername(), TestUsers.PASSWORD);
+		mvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void loginIssuesASignedTokenAcceptedByUsers() throws Exception {
+		User user = userService.register(TestUsers.newUser("sesion"));
+		String token = login(user.getUsername(), TestUsers.PASSWORD);
+
+		assertEquals(3, token.split("\\.").length);
+		Jwt jwt = jwtDecoder.decode(token);
+		assertEquals("HS256", jwt.getHeaders().get("alg"));
+		assertEquals(String.valueOf(user.getId()), jwt.getSubject());
+		assertEquals("users", jwt.getClaimAsString("role"));
+		assertEquals(issuer, jwt.getClaimAsString("iss"));
+
+		mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.username").value(user.getUsername()));
+		mvc.perform(get("/users/{id}", user.getId()))
+			.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void tamperedExpiredOrForeignTokensAreRejected() throws Exception {
+		User user = userService.register(TestUsers.newUser("sesion"));
+		String token = login(user.getUsername(), TestUsers.PASSWORD);
+
+		// Mismo token con el rol cambiado a admin en el payload: la firma ya no coincide.
+		String[] parts = token.split("\\.");
+		String payload = new String(Base64.getUrlDecoder().decode(parts[1])).replace("\"users\"", "\"admin\"");
+		String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes())
+			+ "." + parts[2];
+		assertUnauthorized(tampered, user.getId());
+
+		Instant now = Instant.now();
+		assertUnauthorized(sign(user.getId(), issuer, now.minus(Duration.ofHours(2)), now.minus(Duration.ofHours(1))),
+			user.getId());
+		assertUnauthorized(sign(user.getId(), "https://otro-emisor.example", now, now.plus(Duration.ofMinutes(5))),
+			user.getId());
+		// Control: con el emisor y la clave correctos el mismo flujo se acepta.
+		mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION,
+				"Bearer " + sign(user.getId(), issuer, now, now.plus(Duration.ofMinutes(5)))))
+			.andExpect(status().isOk());
+	}
+
+	private void assertUnauthorized(String token, long id) throws Exception {
+		mvc.perform(get("/users/{id}", id).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isUnauthorized());
+	}
+
+	/**
+	 * Firma un token con la clave de la aplicación, como lo haría TokenService, con emisor y vigencia a elección.
+	 */
+	private String sign(long userId, String tokenIssuer, Instant issuedAt, Instant expiresAt) {
+		JwtClaimsSet claims = JwtClaimsSet.builder()
+			.id(UUID.randomUUID().toString())
+			.issuer(tokenIssuer)
+			.subject(String.valueOf(userId))
+			.issuedAt(issuedAt)
+			.expiresAt(expiresAt)
+			.claim("role", "users")
+			.build();
+		return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+			.getTokenValue();
+	}
+
+	@Test
+	void batchRegistrationRequiresAdminToken() throws Exception {
+		String body = "[" + json(TestUsers.newUser("lote")) + "," + json(TestUsers.newUser("lote")) + "]";
+		mvc.perform(post("/auth/register/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isUnauthorized());
+		mvc.perform(post("/auth/register/batch").with(jwt().authorities(new SimpleGrantedAuthority("ROLE_users")))
+				.contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isForbidden());
+		mvc.perform(post("/auth/register/batch").with(admin()).contentType(MediaType.APPLICATION_JSON).content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(2));
+	}
+
+	@Test
+	void batchLargerThanMaximumIsRejectedWhileReading() throws Exception {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 4; i++) {
+			ndjson.append(json(TestUsers.newUser("grande"))).append('\n');
+		}
+		// Línea inválida después del máximo: no se alcanza a leer.
+		ndjson.append("{no es json\n");
+		mvc.perform(post("/auth/register/batch").with(admin()).contentType("application/x-ndjson").content(ndjson.toString()))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.error").value("El lote supera el máximo de 3 usuarios"));
+		mvc.perform(post("/auth/register/batch").with(admin()).contentType(MediaType.APPLICATION_JSON).content("[{\"name\": }]"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.error").value("JSON inválido en la línea 1"));
+	}
+
+	@Test
+	void adminCanRevokeEveryTokenOfAUser() throws Exception {
+		User user = userService.register(TestUsers.newUser("revocado"));
+		String response = loginResponse(user.getUsername(), TestUsers.PASSWORD);
+		String token = JsonPath.read(response, "$.accessToken");
+		String refreshToken = JsonPath.read(response, "$.refreshToken");
+
+		mvc.perform(post("/auth/revoke/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isForbidden());
+		mvc.perform(post("/auth/revoke/users/{id}", Long.MAX_VALUE).with(admin()))
+			.andExpect(status().isNotFound());
+		mvc.perform(post("/auth/revoke/users/{id}", user.getId()).with(admin()))
+			.andExpect(status().isNoContent());
+
+		assertUnauthorized(token, user.getId());
+		mvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"refreshToken\":\"%s\"}".formatted(refreshToken)))
+			.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void deletingAUserRevokesItsAccessTokens() throws Exception {
+		User user = userService.register(TestUsers.newUser("eliminado"));
+		String token = login(user.getUsername(), TestUsers.PASSWORD);
+
+		mvc.perform(delete("/users/{id}", user.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+			.andExpect(status().isNoContent());
+
+		// 401 y no 404: el token del usuario eliminado ya no autentica.
+		assertUnauthorized(token, user.getId());
+	}
+
+	/**
+	 * @return Token de acceso emitido por /auth/login.
+	 */
+	private String login(String username, String password) throws Exception {
+		return JsonPath.read(loginResponse(username, password), "$.accessToken");
+	}
+
+	private String loginResponse(String username, String password) throws Exception {
+		return mvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, password)))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+	}
+
+	private static RequestPostProcessor admin() {
+		return jwt().authorities(new SimpleGrantedAuthority("ROLE_admin"));
+	}
+
+	private static String json(User user) {
+		return """
+			{"name":"%s","firstLastname":"%s","secondLastname":"%s","email":"%s","username":"%s","password":"%s","rut":"%s"}"""
+			.formatted(user.getName(), user.getFirstLastname(), user.getSecondLastname(), user.getEmail(),
+				user.getUsername(), user.getPassword(), user.getRut());
+	}
+
+	private Map<String, Object> row(long id) {
+		return jdbc.queryForMap("select * from tb_users where id_user = ?", id);
+	}
+}
@@ -0,0 +1,147 @@
+package com.briamcarrasco.auth_service_api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * PUT, PATCH y DELETE de /users solo sobre la propia cuenta o con rol admin; el rol solo lo cambia un admin.
+ * El cuerpo de PUT se valida como en el registro.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:authorization;MODE=Oracle;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserAuthorizationTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserService userService;
+
+	private static RequestPostProcessor user(long id) {
+		return jwt().jwt(token -> token.subject(String.valueOf(id)))
+			.authorities(new SimpleGrantedAuthority("ROLE_users"));
+	}
+
+	private static RequestPostProcessor admin() {
+		return jwt().jwt(token -> token.subject("0")).authorities(new SimpleGrantedAuthority("ROLE_admin"));
+	}
+
+	private static String putBody(User user, String name, String role) {
+		return """
+			{"id":%d,"name":"%s","firstLastname":"Apellido","secondLastname":"Segundo","email":"%s",
+			 "username":"%s","password":"","role":"%s","rut":"%s"}
+			""".formatted(user.getId(), name, user.getEmail(), user.getUsername(), role, user.getRut());
+	}
+
+	@Test
+	void otherUsersAccountsCannotBeModified() throws Exception {
+		User victim = userService.register(TestUsers.newUser("victima"));
+		User attacker = userService.register(TestUsers.newUser("atacante"));
+
+		mvc.perform(patch("/users/{id}", victim.getId()).with(user(attacker.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Robado\"}"))
+			.andExpect(status().isForbidden());
+		mvc.perform(put("/users").with(user(attacker.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content(putBody(victim, "Robado", "users")))
+			.andExpect(status().isForbidden());
+		mvc.perform(delete("/users/{id}", victim.getId()).with(user(attacker.getId())))
+			.andExpect(status().isForbidden());
+
+		assertEquals("Nombre", userService.findById(victim.getId()).name());
+	}
+
+	@Test
+	void onlyAdminsCanChangeRoles() throws Exception {
+		User owner = userService.register(TestUsers.newUser("propio"));
+
+		mvc.perform(patch("/users/{id}", owner.getId()).with(user(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"admin\"}"))
+			.andExpect(status().isForbidden())
+			.andExpect(jsonPath("$.error").value("Solo un administrador puede cambiar el rol"));
+		mvc.perform(put("/users").with(user(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content(putBody(owner, "Nombre", "admin")))
+			.andExpect(status().isForbidden());
+		assertEquals("users", userService.findById(owner.getId()).role());
+
+		mvc.perform(patch("/users/{id}", owner.getId()).with(admin())
+				.contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"admin\"}"))
+			.andExpect(status().isNoContent());
+		assertEquals("admin", userService.findById(owner.getId()).role());
+	}
+
+	@Test
+	void putRejectsAnInvalidRut() throws Exception {
+		User owner = userService.register(TestUsers.newUser("propio"));
+		String rut = owner.getRut();
+		String body = putBody(owner, "Nombre", "users");
+
+		mvc.perform(put("/users").with(user(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content(body.replace(rut, "12345678-4")))
+			.andExpect(status().isBadRequest());
+		mvc.perform(put("/users").with(admin())
+				.contentType(MediaType.APPLICATION_JSON).content(body.replace("\"rut\":\"" + rut + "\"", "\"rut\":null")))
+			.andExpect(status().isBadRequest());
+		mvc.perform(put("/users").with(admin())
+				.contentType(MediaType.APPLICATION_JSON).content(putBody(owner, "Nombre", "root")))
+			.andExpect(status().isBadRequest());
+
+		// Sin pasar por la validación, la entidad tampoco guarda el RUT sin su parte numérica.
+		owner.setRut("12345678-4");
+		owner.setPassword(null);
+		// Spring traduce la IllegalArgumentException del callback JPA al confirmar la transacción.
+		InvalidDataAccessApiUsageException error = assertThrows(InvalidDataAccessApiUsageException.class,
+			() -> userService.update(owner, null));
+		assertInstanceOf(IllegalArgumentException.class, error.getCause());
+		assertEquals(rut, userService.findById(owner.getId()).rut());
+		assertEquals(owner.getId(), userService.findByRut(rut).id());
+	}
+
+	@Test
+	void ownerAndAdminCanModifyTheAccount() throws Exception {
+		User owner = userService.register(TestUsers.newUser("propio"));
+
+		mvc.perform(patch("/users/{id}", owner.getId()).with(user(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Propio\"}"))
+			.andExpect(status().isNoContent());
+		mvc.perform(put("/users").with(user(owner.getId()))
+				.contentType(MediaType.APPLICATION_JSON).content(putBody(owner, "Completo", "users")))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Completo"))
+			.andExpect(jsonPath("$.role").value("users"));
+		mvc.perform(put("/users").with(admin())
+				.contentType(MediaType.APPLICATION_JSON).content(putBody(owner, "Administrado", "users")))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("Administrado"));
+
+		mvc.perform(delete("/users/{id}", owner.getId()).with(user(owner.getId())))
+			.andExpect(status().isNoContent());
+		assertThrows(ResourceNotFoundException.class, () -> userService.findById(owner.getId()));
+
+		User other = userService.register(TestUsers.newUser("otro"));
+		mvc.perform(delete("/users/{id}", other.getId()).with(admin()))
+			.andExpect(status().isNoContent());
+	}
+}
@@ -0,0 +1,105 @@
+package com.briamcarrasco.auth_service_api.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.model.User;
+import com.briamcarrasco.auth_service_api.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.JwtRequestPostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * ETag de /users/{id}: GET condicional con If-None-Match y actualizaciones condicionales con If-Match.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag;MODE=Oracle;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UserETagTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void conditionalGetAnswersNotModifiedUntilTheUserChanges() throws Exception {
+		long id = userService.register(TestUsers.newUser("etag")).getId();
+
+		mvc.perform(get("/users/{id}", id).with(jwt()))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+			.andExpect(jsonPath("$.id").value(id));
+		mvc.perform(get("/users/{id}", id).with(jwt()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+			.andExpect(content().string(""));
+
+		patchName(id, null, "Cambiado").andExpect(status().isNoContent());
+
+		mvc.perform(get("/users/{id}", id).with(jwt()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+			.andExpect(jsonPath("$.name").value("Cambiado"));
+	}
+
+	@Test
+	void conditionalUpdatesRejectStaleVersions() throws Exception {
+		User user = userService.register(TestUsers.newUser("etag"));
+		long id = user.getId();
+
+		patchName(id, "\"0\"", "Primero").andExpect(status().isNoContent());
+		patchName(id, "\"0\"", "Perdido").andExpect(status().isPreconditionFailed());
+		patchName(id, "W/\"1\"", "Débil").andExpect(status().isPreconditionFailed());
+		patchName(Long.MAX_VALUE, "\"1\"", "Nadie").andExpect(status().isNotFound());
+
+		putName(user, "\"0\"", "Perdido").andExpect(status().isPreconditionFailed());
+		putName(user, "\"1\"", "Segundo")
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+		putName(user, null, "Tercero")
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+		patchName(id, "*", "Cuarto").andExpect(status().isNoContent());
+
+		mvc.perform(get("/users/{id}", id).with(jwt()))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+			.andExpect(jsonPath("$.name").value("Cuarto"));
+	}
+
+	/** Token del propio usuario: solo él (o un admin) puede modificar su cuenta. */
+	private static JwtRequestPostProcessor owner(long id) {
+		return jwt().jwt(token -> token.subject(String.valueOf(id)));
+	}
+
+	private ResultActions patchName(long id, String ifMatch, String name) throws Exception {
+		var request = patch("/users/{id}", id).with(owner(id))
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("{\"name\":\"" + name + "\"}");
+		return mvc.perform(ifMatch != null ? request.header(HttpHeaders.IF_MATCH, ifMatch) : request);
+	}
+
+	private ResultActions putName(User user, String ifMatch, String name) throws Exception {
+		String body = """
+			{"id":%d,"name":"%s","firstLastname":"Apellido","secondLastname":"Segundo","email":"%s",
+			 "username":"%s","password":"","role":"users","rut":"%s"}
+			""".formatted(user.getId(), name, user.getEmail(), user.getUsername(), user.getRut());
+		var request = put("/users").with(owner(user.getId())).contentType(MediaType.APPLICATION_JSON).content(body);
+		return mvc.perform(ifMatch != null ? request.header(HttpHeaders.IF_MATCH, ifMatch) : request);
+	}
+}
@@ -0,0 +1,42 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Solo /actuator/health es público; métricas y Prometheus requieren rol admin.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:actuator;MODE=Oracle;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("h2")
+class ActuatorSecurityTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void healthIsPublic() throws Exception {
+		mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	@Test
+	void metricsRequireAdmin() throws Exception {
+		for (String path : new String[] {"/actuator/prometheus", "/actuator/metrics"}) {
+			mvc.perform(get(path)).andExpect(status().isUnauthorized());
+			mvc.perform(get(path).with(jwt())).andExpect(status().isForbidden());
+			mvc.perform(get(path).with(jwt().authorities(new SimpleGrantedAuthority("ROLE_admin"))))
+				.andExpect(status().isOk());
+		}
+	}
+}
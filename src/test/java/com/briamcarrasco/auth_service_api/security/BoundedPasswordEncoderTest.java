@@ -0,0 +1,123 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.briamcarrasco.auth_service_api.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+	@Test
+	void batchFailsInsteadOfHashingOnCallerWhenPoolIsSaturated() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEncoder delegate = new RecordingEncoder(release);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1, registry);
+		// Un hash en curso y otro en cola: el pool queda lleno.
+		List<Thread> blockers = new ArrayList<>();
+		for (String gauge : List.of("auth.hashing.active", "auth.hashing.queue.depth")) {
+			Thread blocker = new Thread(() -> encoder.encode("bloquear"));
+			blockers.add(blocker);
+			blocker.start();
+			while (registry.get(gauge).gauge().value() < 1) {
+				Thread.sleep(5);
+			}
+		}
+
+		assertThrows(HashingCapacityExceededException.class, () -> encoder.encodeAll(List.of("a", "b")));
+
+		release.countDown();
+		for (Thread blocker : blockers) {
+			blocker.join();
+		}
+		assertFalse(delegate.encoded.contains("a"));
+		assertTrue(delegate.callerThreads.isEmpty());
+		encoder.close();
+	}
+
+	@Test
+	void batchWaitsForItsOwnTasksUnderContention() throws InterruptedException {
+		RecordingEncoder delegate = new RecordingEncoder(new CountDownLatch(0));
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 2, 1, 1, new SimpleMeterRegistry());
+		AtomicBoolean running = new AtomicBoolean(true);
+		List<Thread> competitors = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread competitor = new Thread(() -> {
+				while (running.get()) {
+					try {
+						encoder.encode("otra");
+					} catch (HashingCapacityExceededException e) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+			competitors.add(competitor);
+			competitor.start();
+		}
+
+		List<String> passwords = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			passwords.add("clave-" + i);
+		}
+		List<String> hashes;
+		try {
+			hashes = encoder.encodeAll(passwords);
+		} finally {
+			running.set(false);
+			for (Thread competitor : competitors) {
+				competitor.join();
+			}
+			encoder.close();
+		}
+
+		for (int i = 0; i < passwords.size(); i++) {
+			assertEquals("hash:" + passwords.get(i), hashes.get(i));
+		}
+		assertTrue(delegate.callerThreads.isEmpty(), "hashes en hilos llamadores: " + delegate.callerThreads);
+	}
+
+	/**
+	 * Codificador trivial que registra en qué hilos se ejecuta.
+	 */
+	private static final class RecordingEncoder implements PasswordEncoder {
+
+		private final CountDownLatch release;
+		private final Set<String> encoded = ConcurrentHashMap.newKeySet();
+		private final Set<String> callerThreads = ConcurrentHashMap.newKeySet();
+
+		RecordingEncoder(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			String thread = Thread.currentThread().getName();
+			if (!thread.startsWith("password-hashing-")) {
+				callerThreads.add(thread);
+			}
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			encoded.add(rawPassword.toString());
+			return "hash:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encodedPassword.equals(encode(rawPassword));
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.briamcarrasco.auth_service_api.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+	private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	/** 3 intentos por minuto por usuario (uno cada 20 s) y 10 por minuto por IP. */
+	private LoginThrottle throttle(long maxKeys) {
+		return new LoginThrottle(true, 3, Duration.ofMinutes(1), 10, Duration.ofMinutes(1), maxKeys, registry,
+			nanos::get);
+	}
+
+	private void advance(Duration duration) {
+		nanos.addAndGet(duration.toNanos());
+	}
+
+	@Test
+	void fullBucketAllowsBurstUpToCapacity() {
+		LoginThrottle throttle = throttle(1000);
+		for (int i = 0; i < 3; i++) {
+			throttle.acquire("ana", "10.0.0.1");
+		}
+		LoginThrottledException e = assertThrows(LoginThrottledException.class,
+			() -> throttle.acquire("ana", "10.0.0.1"));
+		assertEquals(20, e.getRetryAfterSeconds());
+		assertEquals(1.0, registry.get("auth.login.throttled").tag("scope", "username").counter().count());
+
+		// Otro usuario desde la misma IP tiene su propio bucket.
+		throttle.acquire("luis", "10.0.0.1");
+	}
+
+	@Test
+	void tokensRefillOneIntervalAtATime() {
+		LoginThrottle throttle = throttle(1000);
+		for (int i = 0; i < 3; i++) {
+			throttle.acquire("ana", "10.0.0.1");
+		}
+		advance(Duration.ofSeconds(19));
+		LoginThrottledException e = assertThrows(LoginThrottledException.class,
+			() -> throttle.acquire("ana", "10.0.0.1"));
+		assertEquals(1, e.getRetryAfterSeconds());
+
+		advance(Duration.ofSeconds(1));
+		throttle.acquire("ana", "10.0.0.1");
+		assertThrows(LoginThrottledException.class, () -> throttle.acquire("ana", "10.0.0.1"));
+
+		// Tras un periodo completo el bucket vuelve a estar lleno, pero no acumula más que la capacidad.
+		advance(Duration.ofMinutes(5));
+		for (int i = 0; i < 3; i++) {
+			throttle.acquire("ana", "10.0.0.1");
+		}
+		assertThrows(LoginThrottledException.class, () -> throttle.acquire("ana", "10.0.0.1"));
+	}
+
+	@Test
+	void ipLimitAppliesAcrossUsernames() {
+		LoginThrottle throttle = throttle(1000);
+		for (int i = 0; i < 10; i++) {
+			throttle.acquire("usuario" + i, "10.0.0.1");
+		}
+		assertThrows(LoginThrottledException.class, () -> throttle.acquire("otro", "10.0.0.1"));
+		assertEquals(1.0, registry.get("auth.login.throttled").tag("scope", "ip").counter().count());
+
+		throttle.acquire("otro", "10.0.0.2");
+	}
+
+	@Test
+	void idleBucketsAreEvictedAfterThePeriod() {
+		LoginThrottle throttle = throttle(1000);
+		throttle.acquire("ana", "10.0.0.1");
+		throttle.acquire("luis", "10.0.0.2");
+		assertEquals(4, throttle.trackedKeys());
+
+		advance(Duration.ofSeconds(59));
+		throttle.acquire("ana", "10.0.0.1");
+		advance(Duration.ofSeconds(2));
+		assertEquals(2, throttle.trackedKeys());
+	}
+
+	@Test
+	void keyCountIsBounded() {
+		LoginThrottle throttle = throttle(50);
+		for (int i = 0; i < 1000; i++) {
+			throttle.acquire("usuario" + i, null);
+		}
+		assertEquals(50, throttle.trackedKeys());
+	}
+
+	@Test
+	void disabledThrottleNeverRejects() {
+		LoginThrottle throttle = new LoginThrottle(false, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1), 10,
+			registry, nanos::get);
+		for (int i = 0; i < 10; i++) {
+			throttle.acquire("ana", "10.0.0.1");
+		}
+	}
+}
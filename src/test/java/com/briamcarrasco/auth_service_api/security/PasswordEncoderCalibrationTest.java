@@ -0,0 +1,62 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+class PasswordEncoderCalibrationTest {
+
+	private static final String PASSWORD = "P@ssw0rd!";
+
+	@Test
+	void bcryptCostNeverDropsBelowMinimumAndOlderHashesAreUpgraded() {
+		PasswordEncoderCalibration calibration = PasswordEncoderCalibration.calibrate("bcrypt", Duration.ofNanos(1), 5, 1024, 1);
+		assertEquals(5, calibration.result().cost());
+		PasswordEncoder encoder = calibration.encoder();
+
+		String current = encoder.encode(PASSWORD);
+		assertTrue(current.startsWith("{bcrypt}$2a$05$"));
+		assertTrue(encoder.matches(PASSWORD, current));
+		assertFalse(encoder.upgradeEncoding(current));
+
+		String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+		assertTrue(encoder.matches(PASSWORD, weaker));
+		assertTrue(encoder.upgradeEncoding(weaker));
+
+		// Hashes guardados antes de los prefijos: se verifican como BCrypt y se migran.
+		String legacy = new BCryptPasswordEncoder(5).encode(PASSWORD);
+		assertTrue(encoder.matches(PASSWORD, legacy));
+		assertTrue(encoder.upgradeEncoding(legacy));
+	}
+
+	@Test
+	void argon2IsCalibratedAndOtherAlgorithmsAreMigrated() {
+		PasswordEncoderCalibration calibration = PasswordEncoderCalibration.calibrate("argon2", Duration.ofNanos(1), 4, 1024, 1);
+		assertEquals(1, calibration.result().cost());
+		PasswordEncoder encoder = calibration.encoder();
+
+		String current = encoder.encode(PASSWORD);
+		assertTrue(current.startsWith("{argon2}$argon2id$v=19$m=1024,t=1,p=1$"));
+		assertTrue(encoder.matches(PASSWORD, current));
+		assertFalse(encoder.matches("otra", current));
+		assertFalse(encoder.upgradeEncoding(current));
+
+		String pbkdf2 = "{pbkdf2}" + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode(PASSWORD);
+		assertTrue(encoder.matches(PASSWORD, pbkdf2));
+		assertTrue(encoder.upgradeEncoding(pbkdf2));
+		assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD)));
+	}
+
+	@Test
+	void rejectsUnknownAlgorithm() {
+		assertThrows(IllegalArgumentException.class,
+			() -> PasswordEncoderCalibration.calibrate("md5", Duration.ofMillis(100), 10, 1024, 1));
+	}
+}
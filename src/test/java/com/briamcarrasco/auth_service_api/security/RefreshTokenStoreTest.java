@@ -0,0 +1,98 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RefreshTokenStoreTest {
+
+	@Test
+	void tableSurvivesGrowthAndDeletionsWithinProbeClusters() {
+		OffHeapTokenTable table = new OffHeapTokenTable(16);
+		int count = 50_000;
+		long[] his = new long[count];
+		long[] los = new long[count];
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < count; i++) {
+			his[i] = random.nextLong();
+			// Pocos bits distintos en la parte baja: fuerza colisiones y grupos de sondeo largos.
+			los[i] = random.nextLong() & ~0xFFFL | (i & 0x7);
+			table.put(his[i], los[i], i, 1_000 + i, 10_000);
+		}
+		assertEquals(count, table.size());
+		for (int i = 0; i < count; i += 2) {
+			assertTrue(table.remove(his[i], los[i]));
+		}
+		for (int i = 0; i < count; i++) {
+			OffHeapTokenTable.Entry entry = table.take(his[i], los[i], 0);
+			if (i % 2 == 0) {
+				assertNull(entry);
+			} else {
+				assertNotNull(entry, "entrada " + i);
+				assertEquals(i, entry.userId());
+				assertEquals(1_000 + i, entry.expiresAt());
+			}
+		}
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void wheelRemovesExpiredEntriesAndDiscardsStaleKeys() {
+		OffHeapTokenTable table = new OffHeapTokenTable(16);
+		TimerWheel wheel = new TimerWheel(60, 8, 0);
+		table.put(1, 1, 7, 120, 10_000);
+		wheel.schedule(1, 1, 120);
+		// Vence dentro de más de una vuelta (8 slots x 60 s): debe sobrevivir y reprogramarse.
+		table.put(2, 2, 8, 1_000, 10_000);
+		wheel.schedule(2, 2, 1_000);
+		// Clave ya eliminada de la tabla (token rotado).
+		wheel.schedule(3, 3, 180);
+
+		assertEquals(0, wheel.advance(60, table::sweep));
+		assertEquals(2, wheel.advance(240, table::sweep));
+		assertEquals(1, table.size());
+		assertEquals(0, wheel.advance(960, table::sweep));
+		assertEquals(1, table.size());
+		// Reprogramada en su mismo slot: se revisa de nuevo una vuelta después.
+		assertEquals(1, wheel.advance(1_440, table::sweep));
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void refreshTokensAreSingleUseAndSurviveRestart(@TempDir Path dir) {
+		String snapshot = dir.resolve("refresh.bin").toString();
+		RefreshTokenStore store = new RefreshTokenStore(Duration.ofDays(14), Duration.ofDays(30), 100, 60_000,
+			snapshot, new SimpleMeterRegistry());
+		RefreshTokenStore.Issued issued = store.create(42);
+		RefreshTokenStore.Issued revoked = store.create(43);
+		assertTrue(store.remove(revoked.token()));
+
+		RefreshTokenStore.Issued rotated = store.rotate(issued.token());
+		assertNotNull(rotated);
+		assertEquals(42, rotated.userId());
+		assertNotEquals(issued.token(), rotated.token());
+		assertNull(store.rotate(issued.token()));
+		assertNull(store.rotate(revoked.token()));
+		assertNull(store.rotate("desconocido"));
+		assertNull(store.rotate(null));
+		store.snapshot();
+
+		RefreshTokenStore restarted = new RefreshTokenStore(Duration.ofDays(14), Duration.ofDays(30), 100, 60_000,
+			snapshot, new SimpleMeterRegistry());
+		restarted.load();
+		assertFalse(restarted.remove(issued.token()));
+		RefreshTokenStore.Issued afterRestart = restarted.rotate(rotated.token());
+		assertNotNull(afterRestart);
+		assertEquals(42, afterRestart.userId());
+	}
+}
@@ -0,0 +1,181 @@
+package com.briamcarrasco.auth_service_api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenRevocationStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("jti-" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("jti-" + i));
+			if (filter.mightContain("otro-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+	}
+
+	@Test
+	void revokedTokensAreRejectedUntilTheyExpire() {
+		TokenRevocationStore store = store();
+		Instant future = Instant.now().plusSeconds(600);
+		store.revoke("vigente", future);
+		store.revoke("vencido", Instant.now().minusSeconds(1));
+		assertTrue(store.isRevoked("vigente"));
+		assertTrue(store.isRevoked("vencido"));
+		assertFalse(store.isRevoked("nunca-revocado"));
+		assertFalse(store.isRevoked(null));
+
+		store.purgeExpired();
+
+		assertTrue(store.isRevoked("vigente"));
+		assertFalse(store.isRevoked("vencido"));
+	}
+
+	@Test
+	void rebuildDoesNotLoseConcurrentRevocations() throws InterruptedException {
+		TokenRevocationStore store = store();
+		Instant future = Instant.now().plusSeconds(600);
+		AtomicBoolean running = new AtomicBoolean(true);
+		CountDownLatch started = new CountDownLatch(1);
+		Thread purger = new Thread(() -> {
+			started.countDown();
+			int i = 0;
+			while (running.get()) {
+				// Cada purga encuentra un vencido y reconstruye el filtro.
+				store.revoke("vencido-" + i++, Instant.now().minusSeconds(1));
+				store.purgeExpired();
+			}
+		});
+		purger.start();
+		started.await();
+
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int thread = t;
+			Thread writer = new Thread(() -> {
+				for (int i = 0; i < 5_000; i++) {
+					store.revoke("jti-" + thread + "-" + i, future);
+				}
+			});
+			writers.add(writer);
+			writer.start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		running.set(false);
+		purger.join();
+
+		for (int t = 0; t < 4; t++) {
+			for (int i = 0; i < 5_000; i++) {
+				assertTrue(store.isRevoked("jti-" + t + "-" + i), "jti-" + t + "-" + i);
+			}
+		}
+	}
+
+	@Test
+	void snapshotRestoresOnlyUnexpiredRevocations() {
+		TokenRevocationStore store = store();
+		store.revoke("vigente", Instant.now().plusSeconds(600));
+		store.revoke("vencido", Instant.now().minusSeconds(1));
+		store.snapshot();
+
+		TokenRevocationStore restarted = store();
+		assertTrue(restarted.isRevoked("vigente"));
+		assertFalse(restarted.isRevoked("vencido"));
+		assertEquals(1.0, revokedCount(restarted));
+	}
+
+	@Test
+	void userRevocationCoversTokensIssuedUpToThatInstant() {
+		TokenRevocationStore store = store();
+		Instant revokedAt = Instant.now();
+		assertFalse(store.isUserRevoked(7, revokedAt.minusSeconds(60)));
+
+		store.revokeUser(7, revokedAt);
+		// Una revocación anterior que llega tarde no adelanta la marca.
+		store.revokeUser(7, revokedAt.minusSeconds(3600));
+
+		assertTrue(store.isUserRevoked(7, revokedAt.minusSeconds(60)));
+		assertTrue(store.isUserRevoked(7, revokedAt));
+		assertFalse(store.isUserRevoked(7, revokedAt.plusSeconds(1)));
+		assertFalse(store.isUserRevoked(8, revokedAt.minusSeconds(60)));
+		assertFalse(store.isUserRevoked(7, null));
+	}
+
+	@Test
+	void userRevocationsSurviveRestartUntilNoAffectedTokenCanRemain() {
+		TokenRevocationStore store = store();
+		Instant now = Instant.now();
+		store.revokeUser(1, now);
+		store.revokeUser(2, now.minus(Duration.ofDays(31)));
+		store.snapshot();
+
+		TokenRevocationStore restarted = store();
+		assertTrue(restarted.isUserRevoked(1, now.minusSeconds(1)));
+		assertFalse(restarted.isUserRevoked(2, now.minus(Duration.ofDays(32))));
+
+		store.purgeExpired();
+		assertTrue(store.isUserRevoked(1, now.minusSeconds(1)));
+		assertFalse(store.isUserRevoked(2, now.minus(Duration.ofDays(32))));
+	}
+
+	@Test
+	void validatorRejectsTokensOfRevokedUsers() {
+		TokenRevocationStore store = store();
+		RevokedTokenValidator validator = new RevokedTokenValidator(store);
+		Instant issuedAt = Instant.now().minusSeconds(30);
+		Jwt token = Jwt.withTokenValue("token")
+			.header("alg", "HS256")
+			.jti("jti-1")
+			.subject("42")
+			.issuedAt(issuedAt)
+			.expiresAt(issuedAt.plusSeconds(900))
+			.build();
+		assertFalse(validator.validate(token).hasErrors());
+
+		store.revokeUser(42, Instant.now());
+
+		assertTrue(validator.validate(token).hasErrors());
+	}
+
+	private TokenRevocationStore store() {
+		TokenRevocationStore store = new TokenRevocationStore();
+		ReflectionTestUtils.setField(store, "expectedTokens", 1_000L);
+		ReflectionTestUtils.setField(store, "snapshotPath", dir.resolve("revoked.bin").toString());
+		ReflectionTestUtils.setField(store, "accessTokenTtl", Duration.ofMinutes(15));
+		ReflectionTestUtils.setField(store, "refreshMaxLifetime", Duration.ofDays(30));
+		ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+		store.init();
+		return store;
+	}
+
+	private static double revokedCount(TokenRevocationStore store) {
+		SimpleMeterRegistry registry = (SimpleMeterRegistry) ReflectionTestUtils.getField(store, "meterRegistry");
+		return registry.get("auth.revocation.size").gauge().value();
+	}
+}
@@ -0,0 +1,135 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LoginCoalescerTest {
+
+	private static final int FOLLOWERS = 8;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final LoginCoalescer coalescer = new LoginCoalescer(true, registry);
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/** Verificación que avisa al empezar y no termina hasta que se libera {@code release}. */
+	private static <T> Supplier<T> blocking(CountDownLatch started, CountDownLatch release, Supplier<T> result) {
+		return () -> {
+			started.countDown();
+			try {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return result.get();
+		};
+	}
+
+	private double count(String role) {
+		return registry.get("auth.login.coalesced").tag("role", role).counter().count();
+	}
+
+	private void awaitFollowers(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (count("follower") < expected) {
+			assertTrue(System.nanoTime() < deadline, "los intentos concurrentes no se agruparon");
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	void identicalConcurrentAttemptsShareOneVerification() throws Exception {
+		AtomicInteger verifications = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Object result = new Object();
+		Supplier<Object> verification = blocking(started, release, () -> {
+			verifications.incrementAndGet();
+			return result;
+		});
+
+		Future<Object> leader = executor.submit(() -> coalescer.execute("ana", "P@ssw0rd!", verification));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		List<Future<Object>> followers = new ArrayList<>();
+		for (int i = 0; i < FOLLOWERS; i++) {
+			followers.add(executor.submit(() -> coalescer.execute("ana", "P@ssw0rd!", verification)));
+		}
+		awaitFollowers(FOLLOWERS);
+		release.countDown();
+
+		assertSame(result, leader.get(10, TimeUnit.SECONDS));
+		for (Future<Object> follower : followers) {
+			assertSame(result, follower.get(10, TimeUnit.SECONDS));
+		}
+		assertEquals(1, verifications.get());
+		assertEquals(1.0, count("leader"));
+		assertEquals(0.0, registry.get("auth.login.coalesced.inflight").gauge().value());
+	}
+
+	@Test
+	void differentPasswordsDoNotShareAResult() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> correct = executor.submit(
+			() -> coalescer.execute("ana", "P@ssw0rd!", blocking(started, release, () -> "ok")));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		// Mientras la primera verificación sigue en curso, otra contraseña ejecuta la suya.
+		assertEquals("rechazado", coalescer.execute("ana", "otra", () -> "rechazado"));
+		assertEquals("otro usuario", coalescer.execute("luis", "P@ssw0rd!", () -> "otro usuario"));
+		assertEquals(0.0, count("follower"));
+
+		release.countDown();
+		assertEquals("ok", correct.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failedLeaderReleasesItsFollowers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalStateException failure = new IllegalStateException("base de datos no disponible");
+		Supplier<String> verification = blocking(started, release, () -> {
+			throw failure;
+		});
+
+		Future<String> leader = executor.submit(() -> coalescer.execute("ana", "P@ssw0rd!", verification));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		List<Future<String>> followers = new ArrayList<>();
+		for (int i = 0; i < FOLLOWERS; i++) {
+			followers.add(executor.submit(() -> coalescer.execute("ana", "P@ssw0rd!", verification)));
+		}
+		awaitFollowers(FOLLOWERS);
+		release.countDown();
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS)).getCause());
+		for (Future<String> follower : followers) {
+			assertSame(failure,
+				assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS)).getCause());
+		}
+
+		// El fallo no queda registrado: el siguiente intento ejecuta una verificación nueva.
+		assertEquals("ok", coalescer.execute("ana", "P@ssw0rd!", () -> "ok"));
+		assertEquals(2.0, count("leader"));
+	}
+}
@@ -0,0 +1,54 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.model.User;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Actualización del hash tras el login: un hash sin prefijo y con menor costo se reemplaza
+ * en segundo plano por uno con el algoritmo y costo actuales.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:rehash;MODE=Oracle;DB_CLOSE_DELAY=-1",
+	"auth.hashing.target-duration=1ms",
+	"auth.hashing.bcrypt.min-strength=5"
+})
+@ActiveProfiles("h2")
+class PasswordRehashTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void loginUpgradesOutdatedHashInBackground() throws InterruptedException {
+		User user = TestUsers.newUser("rehash");
+		long id = userService.register(user).getId();
+		String legacy = new BCryptPasswordEncoder(4).encode(TestUsers.PASSWORD);
+		jdbc.update("update tb_users set password = ? where id_user = ?", legacy, id);
+
+		assertTrue(userService.login(user.getUsername(), TestUsers.PASSWORD).isPresent());
+
+		String hash = legacy;
+		Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+		while (hash.equals(legacy) && Instant.now().isBefore(deadline)) {
+			Thread.sleep(20);
+			hash = jdbc.queryForObject("select password from tb_users where id_user = ?", String.class, id);
+		}
+		assertTrue(hash.startsWith("{bcrypt}$2a$05$"), hash);
+		assertTrue(userService.login(user.getUsername(), TestUsers.PASSWORD).isPresent());
+		assertEquals(hash, jdbc.queryForObject("select password from tb_users where id_user = ?", String.class, id));
+	}
+}
@@ -0,0 +1,89 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.dto.UserPatch;
+import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import com.briamcarrasco.auth_service_api.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Las escrituras de UserService invalidan la caché de usuarios: tras un PUT, PATCH o DELETE
+ * nunca se sirve la versión en caché anterior, y los índices por username y email siguen al usuario.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usercache;MODE=Oracle;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class UserCacheInvalidationTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Test
+	void updateIsVisibleImmediately() {
+		User user = userService.register(TestUsers.newUser("cache"));
+		long version = userService.findVersionedById(user.getId()).version();
+
+		user.setName("Actualizado");
+		user.setPassword(null);
+		userService.update(user, null);
+
+		assertEquals("Actualizado", userService.findById(user.getId()).name());
+		assertTrue(userService.findVersionedById(user.getId()).version() > version);
+	}
+
+	@Test
+	void patchIsVisibleImmediately() {
+		User user = userService.register(TestUsers.newUser("cache"));
+		userService.findById(user.getId());
+
+		userService.patch(user.getId(), new UserPatch("Parchado", null, null, null, null, null, null, null), null);
+
+		assertEquals("Parchado", userService.findById(user.getId()).name());
+	}
+
+	@Test
+	void deletedUserIsNoLongerServed() {
+		User user = userService.register(TestUsers.newUser("cache"));
+		userService.findById(user.getId());
+		assertTrue(userService.login(user.getUsername(), TestUsers.PASSWORD).isPresent());
+
+		userService.deleteById(user.getId());
+
+		assertThrows(ResourceNotFoundException.class, () -> userService.findById(user.getId()));
+		assertTrue(userService.login(user.getUsername(), TestUsers.PASSWORD).isEmpty());
+		assertFalse(userCache.containsUsername(user.getUsername()));
+	}
+
+	@Test
+	void renameMovesUsernameAndEmailIndexes() {
+		User user = userService.register(TestUsers.newUser("cache"));
+		assertTrue(userService.login(user.getUsername(), TestUsers.PASSWORD).isPresent());
+		assertTrue(userCache.containsEmail(user.getEmail()));
+		String oldUsername = user.getUsername();
+		String oldEmail = user.getEmail();
+
+		userService.patch(user.getId(),
+			new UserPatch(null, null, null, "renombrado" + user.getId() + "@test.local", "renombrado" + user.getId(), null, null, null),
+			null);
+
+		assertTrue(userService.login(oldUsername, TestUsers.PASSWORD).isEmpty());
+		assertTrue(userService.login("renombrado" + user.getId(), TestUsers.PASSWORD).isPresent());
+		assertFalse(userCache.containsUsername(oldUsername));
+		assertFalse(userCache.containsEmail(oldEmail));
+		// El username y el email liberados se pueden volver a registrar.
+		User reuse = TestUsers.newUser("cache");
+		reuse.setUsername(oldUsername);
+		reuse.setEmail(oldEmail);
+		assertEquals(oldUsername, userService.register(reuse).getUsername());
+	}
+}
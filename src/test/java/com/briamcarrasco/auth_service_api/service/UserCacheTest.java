@@ -0,0 +1,131 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.briamcarrasco.auth_service_api.dto.UserCredentials;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Caché de usuarios: índices secundarios tras un cambio de username o email y el contador de
+ * invalidaciones que impide reinsertar una lectura anterior a una escritura.
+ */
+class UserCacheTest {
+
+	private final UserCache cache = new UserCache(1_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+	@Test
+	void cachedUserIsServedWithoutQueryingAgain() {
+		AtomicInteger queries = new AtomicInteger();
+		UserCredentials ana = credentials(1, "ana", "ana@test.local", 0);
+
+		cache.getById(1, id -> {
+			queries.incrementAndGet();
+			return Optional.of(ana);
+		});
+
+		assertEquals(ana, cache.getById(1, id -> fail()).orElseThrow());
+		assertEquals(ana, cache.getByUsername("ana", username -> fail()).orElseThrow());
+		assertTrue(cache.containsEmail("ana@test.local"));
+		assertEquals(1, queries.get());
+	}
+
+	@Test
+	void renameDropsTheOldUsernameAndEmail() {
+		cache.getByUsername("ana", username -> Optional.of(credentials(1, "ana", "ana@test.local", 0)));
+
+		cache.invalidate(1);
+		UserCredentials renamed = credentials(1, "ana.maria", "ana.maria@test.local", 1);
+		cache.getById(1, id -> Optional.of(renamed));
+
+		assertFalse(cache.containsUsername("ana"));
+		assertFalse(cache.containsEmail("ana@test.local"));
+		assertTrue(cache.containsUsername("ana.maria"));
+		assertTrue(cache.containsEmail("ana.maria@test.local"));
+		assertTrue(cache.getByUsername("ana", username -> Optional.empty()).isEmpty());
+		assertEquals(renamed, cache.getByUsername("ana.maria", username -> fail()).orElseThrow());
+	}
+
+	@Test
+	void deletedUserIsQueriedAgainAndNotCachedAsMissing() {
+		cache.getById(1, id -> Optional.of(credentials(1, "ana", "ana@test.local", 0)));
+
+		cache.invalidate(1);
+		AtomicInteger queries = new AtomicInteger();
+		for (int i = 0; i < 2; i++) {
+			assertTrue(cache.getById(1, id -> {
+				queries.incrementAndGet();
+				return Optional.empty();
+			}).isEmpty());
+		}
+
+		assertEquals(2, queries.get());
+		assertFalse(cache.containsUsername("ana"));
+		assertFalse(cache.containsEmail("ana@test.local"));
+	}
+
+	@Test
+	void readOverlappingAWriteIsNotCached() {
+		UserCredentials stale = credentials(1, "ana", "ana@test.local", 0);
+		UserCredentials current = credentials(1, "ana", "ana@test.local", 1);
+
+		// La escritura (e invalidación) ocurre mientras la lectura aún está en curso.
+		Optional<UserCredentials> read = cache.getById(1, id -> {
+			cache.invalidate(1);
+			return Optional.of(stale);
+		});
+
+		assertEquals(stale, read.orElseThrow());
+		assertFalse(cache.containsUsername("ana"));
+		assertEquals(current, cache.getById(1, id -> Optional.of(current)).orElseThrow());
+	}
+
+	@Test
+	void concurrentReadersNeverLeaveAnOlderVersionCached() throws InterruptedException {
+		AtomicReference<UserCredentials> database = new AtomicReference<>(credentials(1, "ana", "ana@test.local", 0));
+		AtomicBoolean writing = new AtomicBoolean(true);
+		List<Thread> readers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread reader = new Thread(() -> {
+				while (writing.get()) {
+					cache.getById(1, id -> Optional.of(database.get()));
+					cache.getByUsername("ana", username -> Optional.of(database.get()));
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+		for (int version = 1; version <= 2_000; version++) {
+			database.set(credentials(1, "ana", "ana@test.local", version));
+			cache.invalidate(1);
+			if (version % 100 == 0) {
+				Thread.yield();
+			}
+		}
+		writing.set(false);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertEquals(2_000, cache.getById(1, id -> Optional.of(database.get())).orElseThrow().version());
+		assertEquals(2_000, cache.getByUsername("ana", username -> Optional.of(database.get())).orElseThrow().version());
+	}
+
+	private static UserCredentials credentials(long id, String username, String email, long version) {
+		return new UserCredentials(id, "Ana", "Apellido", "Segundo", email, username, "users", "12.345.678-5",
+			"{bcrypt}hash", version);
+	}
+
+	private static Optional<UserCredentials> fail() {
+		throw new AssertionError("No debía consultar la base de datos");
+	}
+}
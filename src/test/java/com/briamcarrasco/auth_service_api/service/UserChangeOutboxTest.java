@@ -0,0 +1,118 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.briamcarrasco.auth_service_api.TestUsers;
+import com.briamcarrasco.auth_service_api.exception.ResourceNotFoundException;
+import com.briamcarrasco.auth_service_api.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Outbox de cambios sobre H2: los cambios de "otro nodo" se simulan escribiendo directamente
+ * en las tablas, como lo haría otra instancia conectada a la misma base.
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:outbox;MODE=Oracle;DB_CLOSE_DELAY=-1",
+	"auth.outbox.enabled=true",
+	"auth.outbox.poll-interval=3600000"
+})
+@ActiveProfiles("h2")
+class UserChangeOutboxTest {
+
+	private static final String REMOTE = "otro-nodo";
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserChangeOutbox outbox;
+
+	@Autowired
+	private UserSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void catchUp() {
+		outbox.poll();
+	}
+
+	@Test
+	void eventIsWrittenOnlyWhenTheChangeCommits() {
+		User saved = userService.register(TestUsers.newUser("outbox"));
+		assertEquals(1, count("select count(*) from tb_user_changes where user_id = ? and change_type = 'REGISTER'", saved.getId()));
+
+		User duplicate = TestUsers.newUser("outbox");
+		duplicate.setUsername(saved.getUsername());
+		long before = count("select count(*) from tb_user_changes");
+		assertThrows(IllegalArgumentException.class, () -> userService.register(duplicate));
+		assertEquals(before, count("select count(*) from tb_user_changes"));
+	}
+
+	@Test
+	void remoteChangesInvalidateCacheAndSearchIndex() {
+		User kept = userService.register(TestUsers.newUser("outbox"));
+		User deleted = userService.register(TestUsers.newUser("outbox"));
+		userService.findById(kept.getId());
+		userService.findById(deleted.getId());
+
+		jdbc.update("update tb_users set name = 'Remoto' where id_user = ?", kept.getId());
+		insertEvent(nextEventId(), kept.getId(), "UPDATE");
+		jdbc.update("delete from tb_users where id_user = ?", deleted.getId());
+		insertEvent(nextEventId(), deleted.getId(), "DELETE");
+		outbox.poll();
+
+		assertEquals("Remoto", userService.findById(kept.getId()).name());
+		assertEquals("Remoto", searchIndex.get(kept.getId()).name());
+		assertThrows(ResourceNotFoundException.class, () -> userService.findById(deleted.getId()));
+		assertNull(searchIndex.get(deleted.getId()));
+	}
+
+	@Test
+	void idSkippedByAnOpenTransactionIsAppliedWhenItCommits() {
+		User late = userService.register(TestUsers.newUser("outbox"));
+		User early = userService.register(TestUsers.newUser("outbox"));
+		userService.findById(late.getId());
+		outbox.poll();
+
+		// La transacción de "late" toma su id antes que "early", pero confirma después.
+		long lateEventId = nextEventId();
+		insertEvent(nextEventId(), early.getId(), "UPDATE");
+		outbox.poll();
+		assertEquals(1.0, meterRegistry.get("auth.outbox.gaps").gauge().value());
+
+		jdbc.update("update tb_users set name = 'Tardío' where id_user = ?", late.getId());
+		insertEvent(lateEventId, late.getId(), "UPDATE");
+		outbox.poll();
+
+		assertEquals(0.0, meterRegistry.get("auth.outbox.gaps").gauge().value());
+		assertEquals("Tardío", userService.findById(late.getId()).name());
+	}
+
+	private long nextEventId() {
+		return jdbc.queryForObject("select seq_user_changes.nextval from dual", Long.class);
+	}
+
+	private void insertEvent(long id, long userId, String type) {
+		jdbc.update("insert into tb_user_changes (id_change, user_id, change_type, origin_node, created_at) values (?, ?, ?, ?, ?)",
+			id, userId, type, REMOTE, Timestamp.from(Instant.now()));
+	}
+
+	private long count(String sql, Object... args) {
+		return jdbc.queryForObject(sql, Long.class, args);
+	}
+}
@@ -0,0 +1,136 @@
+package com.briamcarrasco.auth_service_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.briamcarrasco.auth_service_api.dto.UserProfile;
+import com.briamcarrasco.auth_service_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class UserSearchIndexTest {
+
+	private static final int MAX_EXPANSIONS = 4;
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final UserSearchIndex index = new UserSearchIndex(userRepository, 1000, MAX_EXPANSIONS, 2,
+		Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+	private static UserProfile user(long id, String name, String lastname) {
+		String username = (name + "." + lastname + id).toLowerCase();
+		return new UserProfile(id, name, lastname, "Rojas", username + "@example.com", username, "users",
+			"11111111-1");
+	}
+
+	private List<Long> ids(String query, int limit) {
+		return index.search(query, limit).stream().map(UserProfile::id).toList();
+	}
+
+	@Test
+	void prefixReachesEveryTermBeyondTheExpansionCap() {
+		// Más términos con "ma" que MAX_EXPANSIONS, y "maria" queda después de todos en orden alfabético.
+		String[] names = {"Macarena", "Magdalena", "Manuel", "Marcela", "Marco", "Mariano", "Maria"};
+		for (int i = 0; i < names.length; i++) {
+			index.put(user(i + 1, names[i], "Soto"));
+		}
+		assertEquals(List.of(6L, 7L), ids("mari soto", 10));
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids("ma", 10));
+		assertEquals(List.of(7L, 6L), ids("maria", 10));
+	}
+
+	@Test
+	void typosAreMatchedAfterExactAndPrefixMatches() {
+		index.put(user(1, "Fernanda", "Pérez"));
+		index.put(user(2, "Fernando", "Perea"));
+		index.put(user(3, "Hernán", "Peralta"));
+
+		assertEquals(List.of(1L, 2L), ids("fernamda", 10));
+		// "perez" exacto (sin tilde) antes que "perea" con un error.
+		assertEquals(List.of(1L, 2L), ids("perez", 10));
+		assertEquals(List.of(3L), ids("hernan", 10));
+		assertEquals(List.of(), ids("xyz", 10));
+	}
+
+	@Test
+	void everyTokenMustMatch() {
+		index.put(user(1, "Ana", "Soto"));
+		index.put(user(2, "Ana", "Muñoz"));
+		index.put(user(3, "Juan", "Soto"));
+
+		assertEquals(List.of(1L), ids("ana soto", 10));
+		assertEquals(List.of(1L), ids("soto ana", 10));
+		assertEquals(List.of(2L), ids("an munoz", 10));
+		assertEquals(List.of(), ids("juan munoz", 10));
+	}
+
+	@Test
+	void topKIsOrderedByScoreThenId() {
+		index.put(user(1, "Carlos", "Soto"));
+		index.put(user(2, "Carla", "Soto"));
+		index.put(user(3, "Carl", "Soto"));
+		index.put(user(4, "Karl", "Soto"));
+
+		// exacta (3) > prefijo (1, 2) > tipeo (4); empates por id.
+		assertEquals(List.of(3L, 1L, 2L, 4L), ids("carl", 10));
+		assertEquals(List.of(3L, 1L), ids("carl", 2));
+	}
+
+	@Test
+	void emailIsSearchedWhole() {
+		index.put(user(1, "Ana", "Pérez"));
+		index.put(user(2, "Ana", "Peña"));
+
+		assertEquals(List.of(1L), ids("ana.perez1@exa", 10));
+	}
+
+	@Test
+	void updatesAndDeletesReplaceIndexedTerms() {
+		index.put(user(1, "Ana", "Soto"));
+		index.put(user(1, "Beatriz", "Soto"));
+		assertEquals(List.of(), ids("ana", 10));
+		assertEquals(List.of(1L), ids("beatriz", 10));
+
+		index.remove(1);
+		assertEquals(List.of(), ids("soto", 10));
+		assertNull(index.get(1));
+	}
+
+	@Test
+	void writesDuringTheBuildAreNotOverwrittenByStalePages() throws Exception {
+		UserProfile deleted = user(3, "Carla", "Soto");
+		UserProfile stale = user(4, "Diego", "Soto");
+		UserProfile updated = user(4, "Daniel", "Soto");
+		when(userRepository.findProfilePage(eq(0L), any())).thenAnswer(invocation -> {
+			// Mientras se lee la primera página, otra petición borra al 3 y renombra al 4.
+			index.remove(deleted.id());
+			index.put(updated);
+			return List.of(user(1, "Ana", "Soto"), user(2, "Beto", "Soto"));
+		});
+		when(userRepository.findProfilePage(eq(2L), any())).thenReturn(List.of(deleted, stale));
+		when(userRepository.findProfilePage(eq(4L), any())).thenReturn(List.of());
+
+		index.buildAsync();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!index.isReady()) {
+			assertTrue(System.nanoTime() < deadline, "el índice no terminó de construirse");
+			Thread.sleep(5);
+		}
+
+		assertEquals(List.of(1L, 2L, 4L), ids("soto", 10));
+		assertEquals(List.of(4L), ids("daniel", 10));
+		assertEquals(List.of(), ids("diego", 10));
+		assertNull(index.get(deleted.id()));
+
+		// Terminada la construcción, un usuario borrado puede volver a indexarse.
+		index.put(deleted);
+		assertEquals(List.of(3L), ids("carla", 10));
+	}
+}
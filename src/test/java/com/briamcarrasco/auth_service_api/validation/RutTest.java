@@ -0,0 +1,46 @@
+package com.briamcarrasco.auth_service_api.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RutTest {
+
+	@Test
+	void parsesAcceptedFormats() {
+		assertEquals(12345678L, Rut.parse("12345678-5"));
+		assertEquals(12345678L, Rut.parse("12.345.678-5"));
+		assertEquals(12345678L, Rut.parse("123456785"));
+		assertEquals(10000013L, Rut.parse("10000013-k"));
+		assertEquals(10000013L, Rut.parse("10.000.013-K"));
+	}
+
+	@Test
+	void rejectsWrongCheckDigitAndMalformedValues() {
+		assertFalse(Rut.isValid("12345678-4"));
+		assertFalse(Rut.isValid("12345678-"));
+		assertFalse(Rut.isValid("-5"));
+		assertFalse(Rut.isValid("0-0"));
+		assertFalse(Rut.isValid("123456789-2"));
+		assertFalse(Rut.isValid("12a45678-5"));
+		assertFalse(Rut.isValid(""));
+		assertFalse(Rut.isValid(null));
+	}
+
+	@Test
+	void normalizesToCanonicalForm() {
+		assertEquals("12345678-5", Rut.normalize("12.345.678-5"));
+		assertEquals("10000013-K", Rut.normalize("10000013k"));
+		assertThrows(IllegalArgumentException.class, () -> Rut.normalize("12345678-4"));
+	}
+
+	@Test
+	void checkDigitMatchesModulo11() {
+		assertEquals('5', Rut.checkDigit(12345678L));
+		assertEquals('K', Rut.checkDigit(10000013L));
+		assertTrue(Rut.isValid(Rut.format(7654321L)));
+	}
+}